@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Authenticated request throughput with and without the Basic-auth verification cache.
+#
+# Starts the server jar twice against the configured database — once with the cache
+# (default), once with device-manager.auth.cache.max-size=0 — and drives GET /api/v1/stats
+# with the same credentials on every request, like the JavaFX client's polling.
+# Requires the built server jar and `hey` (https://github.com/rakyll/hey) on PATH.
+#
+#   ./run.sh [seconds] [concurrency] [cpus]
+#
+# The server is pinned to [cpus] cores with taskset, so req/s divided by cpus is req/s per core.
+set -euo pipefail
+
+SECONDS_PER_RUN=${1:-30}
+CONCURRENCY=${2:-32}
+CPUS=${3:-2}
+DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR="$DIR/../../device-manager-server/target/device-manager-server-1.0.0.jar"
+PORT=18080
+URL="http://localhost:$PORT/api/v1/stats"
+
+run() {
+    local label=$1; shift
+    taskset -c "0-$((CPUS - 1))" java -jar "$JAR" --server.port=$PORT --spring.profiles.active=prod \
+        --logging.level.root=WARN "$@" > /dev/null 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+    until curl -s -o /dev/null -u admin:admin123 "$URL"; do sleep 1; done
+    # Warm-up, then the measured run
+    hey -z 5s -c "$CONCURRENCY" -a admin:admin123 "$URL" > /dev/null
+    local rps
+    rps=$(hey -z "${SECONDS_PER_RUN}s" -c "$CONCURRENCY" -a admin:admin123 "$URL" \
+          | awk '/Requests\/sec/ {print $2}')
+    printf '%-10s %10.0f req/s  %10.0f req/s/core\n' "$label" "$rps" "$(echo "$rps / $CPUS" | bc -l)"
+    kill $pid; wait $pid 2>/dev/null || true
+}
+
+run "bcrypt"   --device-manager.auth.cache.max-size=0
+run "cached"
@@ -0,0 +1,11 @@
+-- Pre-trigram DeviceRepository.search (JPQL LOWER(..) LIKE LOWER('%q%')), page 0 + count
+\set n random(1, 999999)
+SELECT * FROM devices d
+WHERE LOWER(d.name) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%')
+   OR LOWER(d.location) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%')
+   OR LOWER(d.ip_address) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%')
+ORDER BY d.name LIMIT 20;
+SELECT count(*) FROM devices d
+WHERE LOWER(d.name) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%')
+   OR LOWER(d.location) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%')
+   OR LOWER(d.ip_address) LIKE LOWER('%' || lpad(:n::text, 7, '0') || '%');
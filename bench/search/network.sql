@@ -0,0 +1,7 @@
+-- Current DeviceRepository.searchByNetwork: /24 containment via the inet_or_null GiST index
+\set a random(0, 15)
+\set b random(0, 255)
+SELECT d.* FROM devices d
+WHERE inet_or_null(d.ip_address) <<= ('10.' || :a || '.' || :b || '.0/24')::inet
+ORDER BY inet_or_null(d.ip_address), d.id
+LIMIT 20;
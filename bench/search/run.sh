@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Search latency benchmark: legacy LIKE scan vs trigram/inet search.
+#
+# Requires a PostgreSQL with the schema applied (src/main/resources/db/schema.sql)
+# and pgbench on PATH. Connection comes from the usual PG* environment variables.
+#
+#   PGHOST=localhost PGUSER=portfolio PGDATABASE=devicedb ./run.sh [rows] [seconds] [clients]
+#
+# Prints p50/p99 per-transaction latency (ms) for each script.
+set -euo pipefail
+
+ROWS=${1:-1000000}
+SECONDS_PER_RUN=${2:-30}
+CLIENTS=${3:-4}
+DIR="$(cd "$(dirname "$0")" && pwd)"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+echo "Seeding ${ROWS} devices..."
+psql -q -v ON_ERROR_STOP=1 -v rows="$ROWS" -f "$DIR/seed.sql"
+
+for script in legacy-like trigram network; do
+    ( cd "$WORK" && pgbench -n -f "$DIR/$script.sql" -T "$SECONDS_PER_RUN" -c "$CLIENTS" \
+        --log --log-prefix="$script" > "summary-$script.txt" )
+    # pgbench log column 3 is the transaction latency in microseconds
+    cat "$WORK/$script".[0-9]* | awk '{print $3}' | sort -n > "$WORK/$script.lat"
+    total=$(wc -l < "$WORK/$script.lat")
+    p50=$(awk -v n="$total" 'NR == int(n * 0.50) + 1 {printf "%.2f", $1 / 1000}' "$WORK/$script.lat")
+    p99=$(awk -v n="$total" 'NR == int(n * 0.99) + 1 {printf "%.2f", $1 / 1000}' "$WORK/$script.lat")
+    printf '%-12s tx=%-8s p50=%8s ms  p99=%8s ms\n' "$script" "$total" "$p50" "$p99"
+done
@@ -0,0 +1,18 @@
+-- Synthetic inventory for the search benchmark: :rows devices (default 1M).
+-- Usage: psql -v rows=1000000 -f seed.sql
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+
+TRUNCATE device_logs, devices;
+
+INSERT INTO devices (name, type, status, ip_address, location)
+SELECT 'dev-' || lpad(g::text, 7, '0') || '-' || (ARRAY['core','edge','lab','office','dc'])[1 + g % 5],
+       (ARRAY['LAPTOP','DESKTOP','SERVER','PRINTER','ROUTER','OTHER'])[1 + g % 6],
+       (ARRAY['ACTIVE','INACTIVE','MAINTENANCE','DECOMMISSIONED'])[1 + g % 4],
+       '10.' || (g >> 16) % 256 || '.' || (g >> 8) % 256 || '.' || g % 256,
+       'Building ' || chr(65 + g % 26) || ', Floor ' || (g % 12)
+FROM generate_series(1, :rows) AS g;
+
+ANALYZE devices;
@@ -0,0 +1,15 @@
+-- Current DeviceRepository.search: ILIKE served by the gin_trgm_ops indexes, ranked, page 0 + count
+\set n random(1, 999999)
+SELECT d.* FROM devices d
+WHERE d.name ILIKE '%' || lpad(:n::text, 7, '0') || '%'
+   OR d.location ILIKE '%' || lpad(:n::text, 7, '0') || '%'
+   OR d.ip_address ILIKE '%' || lpad(:n::text, 7, '0') || '%'
+ORDER BY GREATEST(word_similarity(lpad(:n::text, 7, '0'), d.name),
+                  word_similarity(lpad(:n::text, 7, '0'), COALESCE(d.location, '')),
+                  word_similarity(lpad(:n::text, 7, '0'), COALESCE(d.ip_address, ''))) DESC,
+         d.name, d.id
+LIMIT 20;
+SELECT count(*) FROM devices d
+WHERE d.name ILIKE '%' || lpad(:n::text, 7, '0') || '%'
+   OR d.location ILIKE '%' || lpad(:n::text, 7, '0') || '%'
+   OR d.ip_address ILIKE '%' || lpad(:n::text, 7, '0') || '%';
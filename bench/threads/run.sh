@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Concurrency vs. p99 latency with a deliberately small JDBC pool, platform vs virtual threads.
+#
+# Starts the server jar (built with -Pjava21, run on a Java 21 JVM) once per mode with
+# HikariCP capped at POOL connections, then drives GET /api/v1/devices at increasing
+# concurrency. Once concurrency exceeds the pool, requests queue for a connection: with
+# platform threads they also queue for one of Tomcat's 200 workers, with virtual threads
+# every request gets a thread and waits on Hikari instead.
+# Requires the database, `hey` (https://github.com/rakyll/hey) and a Java 21 `java` on PATH.
+#
+#   ./run.sh [pool] [seconds] [levels...]     e.g. ./run.sh 5 20 10 50 200 800
+set -euo pipefail
+
+POOL=${1:-5}
+SECONDS_PER_RUN=${2:-20}
+shift $(( $# >= 2 ? 2 : $# ))
+LEVELS=("$@")
+[[ ${#LEVELS[@]} -eq 0 ]] && LEVELS=(10 50 200 800)
+DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR="$DIR/../../device-manager-server/target/device-manager-server-1.0.0.jar"
+PORT=18080
+URL="http://localhost:$PORT/api/v1/devices?size=20&sort=name"
+
+printf '%-9s %6s %10s %10s %10s %8s\n' mode conc req/s p50_ms p99_ms errors
+for mode in platform virtual; do
+    profiles=prod
+    [[ $mode == virtual ]] && profiles=prod,virtual
+    java -jar "$JAR" --server.port=$PORT --spring.profiles.active=$profiles \
+        --spring.datasource.hikari.maximum-pool-size="$POOL" \
+        --spring.datasource.hikari.connection-timeout=10000 \
+        --logging.level.root=WARN > /dev/null 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null -u admin:admin123 "$URL"; do sleep 1; done
+    hey -z 5s -c 10 -a admin:admin123 "$URL" > /dev/null
+
+    for c in "${LEVELS[@]}"; do
+        out=$(hey -z "${SECONDS_PER_RUN}s" -c "$c" -a admin:admin123 "$URL")
+        rps=$(awk '/Requests\/sec/ {print $2}' <<< "$out")
+        p50=$(awk '/ 50% in/ {printf "%.1f", $3 * 1000}' <<< "$out")
+        p99=$(awk '/ 99% in/ {printf "%.1f", $3 * 1000}' <<< "$out")
+        # hey lists non-2xx codes under "Status code distribution"; count everything but [200]
+        errors=$(awk '/\[[0-9]+\]/ && !/\[200\]/ {n += $2} END {print n + 0}' <<< "$out")
+        printf '%-9s %6s %10.0f %10s %10s %8s\n' "$mode" "$c" "$rps" "$p50" "$p99" "$errors"
+    done
+    kill $pid; wait $pid 2>/dev/null || true
+done
@@ -0,0 +1,104 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.BatchResponse;
+import com.mj.portfolio.dto.DeviceRequest;
+import com.mj.portfolio.service.DeviceBatchService;
+import com.mj.portfolio.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Device ingest rate, in rows per second: {@value #ROWS} devices through
+ * {@code POST /api/v1/devices/batch} ({@link DeviceBatchService#createAll}, one transaction,
+ * written {@code chunkSize} at a time) against {@value #ROWS} single creates
+ * ({@link DeviceService#create}, one transaction each), as clients did before the batch
+ * endpoint. Both write the CREATED audit row of every device. {@code single} doesn't depend
+ * on {@code chunkSize}; run it for one value only.
+ *
+ * The perf profile is applied, so batched INSERTs go out as multi-row statements. Rows
+ * created by an iteration are deleted after it; the seeded devices stay. Meaningful on
+ * PostgreSQL only (see {@link SeededServer}):
+ *
+ * <pre>
+ *   java -Dbench.jdbc-url=... -jar target/benchmarks.jar 'BatchIngestBenchmark.batch$' -p devices=1000
+ *   java -Dbench.jdbc-url=... -jar target/benchmarks.jar 'BatchIngestBenchmark.single$' -p devices=1000 -p chunkSize=500
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchIngestBenchmark {
+
+    static final int ROWS = 1000;
+    private static final String PREFIX = "ingest";
+
+    @State(Scope.Benchmark)
+    public static class IngestServer extends SeededServer {
+
+        @Param({"100", "500", "2000"})
+        public int chunkSize;
+
+        @Override
+        protected void configure(List<String> args, boolean postgres) {
+            args.add("--spring.profiles.include=perf");
+            args.add("--device-manager.batch.chunk-size=" + chunkSize);
+        }
+    }
+
+    private DeviceBatchService batch;
+    private DeviceService devices;
+    private JdbcTemplate jdbc;
+
+    @Setup
+    public void setUp(IngestServer server) {
+        batch = server.bean(DeviceBatchService.class);
+        devices = server.bean(DeviceService.class);
+        jdbc = server.bean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteIngested() {
+        jdbc.update("DELETE FROM device_logs WHERE device_id IN (SELECT id FROM devices WHERE name LIKE ?)",
+                PREFIX + "-%");
+        jdbc.update("DELETE FROM devices WHERE name LIKE ?", PREFIX + "-%");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batch() {
+        BatchResponse response = batch.createAll(BenchData.requests(PREFIX, ROWS));
+        return response.getCreated();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int single() {
+        Iterator<DeviceRequest> requests = BenchData.requests(PREFIX, ROWS);
+        int created = 0;
+        while (requests.hasNext()) {
+            devices.create(requests.next());
+            created++;
+        }
+        return created;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.DeviceRequest;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.UUID;
+
+/** Deterministic synthetic devices, so runs on different machines see the same data. */
+final class BenchData {
+
+    private static final String[] LOCATIONS = {
+            "Server Room", "Building A, Floor 3", "Building B, Floor 1", "Data Center East", "Branch Office"
+    };
+    // Skewed towards ACTIVE, like a real fleet
+    private static final DeviceStatus[] STATUSES = {
+            DeviceStatus.ACTIVE, DeviceStatus.ACTIVE, DeviceStatus.ACTIVE, DeviceStatus.ACTIVE,
+            DeviceStatus.INACTIVE, DeviceStatus.MAINTENANCE
+    };
+
+    private BenchData() {}
+
+    static Iterator<DeviceRequest> requests(int count) {
+        return requests("dev", count);
+    }
+
+    /** As {@link #requests(int)}, named {@code <prefix>-000000} onwards. */
+    static Iterator<DeviceRequest> requests(String prefix, int count) {
+        Random random = new Random(42);
+        return new Iterator<>() {
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public DeviceRequest next() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                DeviceRequest r = new DeviceRequest();
+                r.setName(String.format("%s-%06d", prefix, i));
+                r.setType(DeviceType.values()[random.nextInt(DeviceType.values().length)]);
+                r.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                r.setIpAddress("10." + (i >> 16 & 255) + '.' + (i >> 8 & 255) + '.' + (i & 255));
+                r.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+                i++;
+                return r;
+            }
+        };
+    }
+
+    static List<Device> devices(int count) {
+        List<Device> devices = new ArrayList<>(count);
+        Iterator<DeviceRequest> it = requests(count);
+        while (it.hasNext()) {
+            DeviceRequest r = it.next();
+            Device d = new Device();
+            d.setId(UUID.randomUUID());
+            d.setName(r.getName());
+            d.setType(r.getType());
+            d.setStatus(r.getStatus());
+            d.setIpAddress(r.getIpAddress());
+            d.setLocation(r.getLocation());
+            devices.add(d);
+        }
+        return devices;
+    }
+}
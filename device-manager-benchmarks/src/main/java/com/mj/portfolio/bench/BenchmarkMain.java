@@ -0,0 +1,26 @@
+package com.mj.portfolio.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of target/benchmarks.jar. Behaves exactly like {@code org.openjdk.jmh.Main},
+ * except results are written as JSON to {@code jmh-result.json} unless {@code -rf}/{@code -rff}
+ * are given, so every run leaves a file that can be diffed against a previous release.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> argv = new ArrayList<>(Arrays.asList(args));
+        if (!argv.contains("-rf")) {
+            argv.addAll(List.of("-rf", "json"));
+        }
+        if (!argv.contains("-rff")) {
+            argv.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        org.openjdk.jmh.Main.main(argv.toArray(String[]::new));
+    }
+}
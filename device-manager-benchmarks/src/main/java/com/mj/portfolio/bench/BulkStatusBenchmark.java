@@ -0,0 +1,83 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.BulkStatusResponse;
+import com.mj.portfolio.dto.DeviceFilter;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.service.DeviceBulkStatusService;
+import com.mj.portfolio.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving every seeded device to another status: one {@code PATCH /api/v1/devices/status}
+ * ({@link DeviceBulkStatusService}, filtered by the full id list) against one
+ * {@link DeviceService#updateStatus} call per device, as clients had to do before. Each
+ * invocation flips all devices between ACTIVE and MAINTENANCE, so every one of them is a
+ * real transition with its STATUS_CHANGED log.
+ *
+ * PostgreSQL only — the bulk statement uses data-modifying CTEs:
+ *
+ * <pre>
+ *   java -Dbench.jdbc-url=jdbc:postgresql://localhost:5432/devicedb_bench \
+ *        -Dbench.username=portfolio -Dbench.password=... \
+ *        -jar target/benchmarks.jar BulkStatus -p devices=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkStatusBenchmark {
+
+    private DeviceBulkStatusService bulk;
+    private DeviceService devices;
+    private List<UUID> ids;
+    private DeviceFilter all;
+    private DeviceStatus next = DeviceStatus.MAINTENANCE;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        SeededServer.requirePostgres(BulkStatusBenchmark.class);
+        bulk = server.bean(DeviceBulkStatusService.class);
+        devices = server.bean(DeviceService.class);
+        ids = server.bean(JdbcTemplate.class).queryForList("SELECT id FROM devices", UUID.class);
+        all = new DeviceFilter();
+        all.setIds(ids);
+    }
+
+    @Benchmark
+    public int bulk() {
+        BulkStatusResponse response = bulk.updateStatus(flip(), all, false);
+        return response.getUpdated();
+    }
+
+    @Benchmark
+    public int perDevice() {
+        DeviceStatus status = flip();
+        for (UUID id : ids) {
+            devices.updateStatus(id, status);
+        }
+        return ids.size();
+    }
+
+    private DeviceStatus flip() {
+        DeviceStatus status = next;
+        next = status == DeviceStatus.ACTIVE ? DeviceStatus.MAINTENANCE : DeviceStatus.ACTIVE;
+        return status;
+    }
+}
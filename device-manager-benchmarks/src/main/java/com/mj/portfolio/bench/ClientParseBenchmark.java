@@ -0,0 +1,93 @@
+package com.mj.portfolio.bench;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mj.portfolio.client.model.Device;
+import com.mj.portfolio.client.model.PageResponse;
+import com.mj.portfolio.client.service.ApiClient;
+import com.mj.portfolio.dto.DeviceResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JavaFX client turning a GET /api/v1/devices body into devices. The payload is a real
+ * Spring page encoded by the server's Jackson setup. Run with {@code -prof gc} and compare
+ * gc.alloc.rate.norm (bytes allocated per load) across the three paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientParseBenchmark {
+
+    private static final Type DEVICE_PAGE = TypeToken.getParameterized(PageResponse.class, Device.class).getType();
+
+    @Param({"10000"})
+    public int devices;
+
+    private byte[] body;
+    private byte[] gzippedBody;
+    private Gson gson;
+    private ApiClient client;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<DeviceResponse> content = BenchData.devices(devices).stream().map(DeviceResponse::from).toList();
+        body = Jackson2ObjectMapperBuilder.json().build()
+                .writeValueAsBytes(new PageImpl<>(content, PageRequest.of(0, devices, Sort.by("name")), devices));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        gzippedBody = out.toByteArray();
+        gson = new Gson();
+        client = new ApiClient();
+    }
+
+    /** The old path: body as a String, parsed to a Map, content re-serialized and parsed again. */
+    @Benchmark
+    public List<Device> stringMapRoundTrip() {
+        String text = new String(body, StandardCharsets.UTF_8);
+        Map<String, Object> page = gson.fromJson(text, new TypeToken<Map<String, Object>>(){}.getType());
+        String contentJson = gson.toJson(page.get("content"));
+        return gson.fromJson(contentJson, new TypeToken<List<Device>>(){}.getType());
+    }
+
+    @Benchmark
+    public List<Device> streamingTyped() throws Exception {
+        PageResponse<Device> page = client.readJson(new ByteArrayInputStream(body), DEVICE_PAGE);
+        return page.getContent();
+    }
+
+    @Benchmark
+    public List<Device> streamingTypedGzip() throws Exception {
+        PageResponse<Device> page = client.readJson(
+                new GZIPInputStream(new ByteArrayInputStream(gzippedBody), 64 * 1024), DEVICE_PAGE);
+        return page.getContent();
+    }
+}
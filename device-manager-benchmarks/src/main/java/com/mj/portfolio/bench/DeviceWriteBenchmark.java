@@ -0,0 +1,79 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.DeviceRequest;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one device write through {@link DeviceService}: {@code updateStatus} (PATCH
+ * .../status) and {@code update} (PUT), each with its audit row, on a random seeded device.
+ * Every call is a real change — the status moves on each time — and runs in its own
+ * transaction, commit included. HTTP and security filters are not included.
+ *
+ * PostgreSQL only (the writes are native SQL):
+ *
+ * <pre>
+ *   java -Dbench.jdbc-url=... -jar target/benchmarks.jar DeviceWrite -p devices=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeviceWriteBenchmark {
+
+    private static final DeviceStatus[] STATUSES = {
+            DeviceStatus.ACTIVE, DeviceStatus.INACTIVE, DeviceStatus.MAINTENANCE
+    };
+
+    private DeviceService service;
+    private List<UUID> ids;
+    private int next;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        SeededServer.requirePostgres(DeviceWriteBenchmark.class);
+        service = server.bean(DeviceService.class);
+        ids = server.bean(JdbcTemplate.class).queryForList("SELECT id FROM devices", UUID.class);
+    }
+
+    @Benchmark
+    public DeviceResponse updateStatus() {
+        return service.updateStatus(randomId(), STATUSES[next++ % STATUSES.length]);
+    }
+
+    @Benchmark
+    public DeviceResponse update() {
+        DeviceRequest req = new DeviceRequest();
+        req.setName("dev-write");
+        req.setType(DeviceType.SERVER);
+        req.setStatus(STATUSES[next++ % STATUSES.length]);
+        req.setIpAddress("10.255.0.1");
+        req.setLocation("Server Room");
+        return service.update(randomId(), req);
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
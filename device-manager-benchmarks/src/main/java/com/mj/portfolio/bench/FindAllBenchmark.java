@@ -0,0 +1,67 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeviceService#findAll} for each of its branches, first page of 20 sorted by name
+ * (the client's default request). Includes the count query Spring Data runs for the total.
+ *
+ * TEXT_SEARCH and NETWORK_SEARCH use PostgreSQL-only SQL; run them against a real server
+ * (see {@link SeededServer}) with {@code -p branch=TEXT_SEARCH,NETWORK_SEARCH}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindAllBenchmark {
+
+    public enum Branch { UNFILTERED, STATUS, TYPE, STATUS_AND_TYPE, TEXT_SEARCH, NETWORK_SEARCH }
+
+    @Param({"UNFILTERED", "STATUS", "TYPE", "STATUS_AND_TYPE"})
+    public Branch branch;
+
+    private DeviceService service;
+    private DeviceStatus status;
+    private DeviceType type;
+    private String q;
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("name"));
+
+    @Setup
+    public void setUp(SeededServer server) {
+        service = server.bean(DeviceService.class);
+        status  = branch == Branch.STATUS || branch == Branch.STATUS_AND_TYPE ? DeviceStatus.MAINTENANCE : null;
+        type    = branch == Branch.TYPE || branch == Branch.STATUS_AND_TYPE ? DeviceType.values()[0] : null;
+        q       = switch (branch) {
+            case TEXT_SEARCH    -> "dev-0042";
+            case NETWORK_SEARCH -> "10.0.4.0/24";
+            default             -> null;
+        };
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> findAll() {
+        return service.findAll(status, type, q, pageable);
+    }
+}
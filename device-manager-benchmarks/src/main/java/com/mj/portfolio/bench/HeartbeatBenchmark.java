@@ -0,0 +1,89 @@
+package com.mj.portfolio.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mj.portfolio.dto.HeartbeatRequest;
+import com.mj.portfolio.service.HeartbeatService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Heartbeat ingestion rate: the body of {@code POST /api/v1/heartbeats} parsed by the server's
+ * ObjectMapper and queued with {@link HeartbeatService#record}, from 4 threads. The score is
+ * heartbeats per second (one operation = one heartbeat; each call takes a batch of
+ * {@value #BATCH}). Each heartbeat names a random seeded device; 1 in 100 reports a status.
+ *
+ * The server's own flush keeps running every second in the background, so the coalesced
+ * UPDATEs and status transitions compete for the same CPUs. HTTP and security filters are not
+ * included. The target is 50,000 heartbeats/s on the production host.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(1)
+public class HeartbeatBenchmark {
+
+    static final int BATCH = 500;
+    private static final int BODIES = 64;
+    private static final TypeReference<List<HeartbeatRequest>> BODY = new TypeReference<>() {};
+
+    private HeartbeatService service;
+    private ObjectMapper mapper;
+    private byte[][] bodies;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp(SeededServer server) throws IOException {
+        service = server.bean(HeartbeatService.class);
+        mapper = server.bean(ObjectMapper.class);
+        List<UUID> ids = server.bean(JdbcTemplate.class).queryForList("SELECT id FROM devices", UUID.class);
+        String[] statuses = {"ACTIVE", "INACTIVE", "MAINTENANCE"};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        bodies = new byte[BODIES][];
+        for (int b = 0; b < BODIES; b++) {
+            List<Map<String, Object>> beats = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                Map<String, Object> beat = new LinkedHashMap<>();
+                beat.put("deviceId", ids.get(random.nextInt(ids.size())).toString());
+                beat.put("ts", LocalDateTime.now().minusSeconds(random.nextInt(60)).toString());
+                if (random.nextInt(100) == 0) {
+                    beat.put("status", statuses[random.nextInt(statuses.length)]);
+                }
+                beats.add(beat);
+            }
+            bodies[b] = mapper.writeValueAsBytes(beats);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int ingest() throws IOException {
+        byte[] body = bodies[Math.floorMod(next.getAndIncrement(), BODIES)];
+        return service.record(mapper.readValue(body, BODY));
+    }
+}
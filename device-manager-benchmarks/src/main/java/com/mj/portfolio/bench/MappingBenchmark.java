@@ -0,0 +1,46 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity → DTO mapping, as done for every device in every list page. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private List<Device> devices;
+
+    @Setup
+    public void setUp() {
+        devices = BenchData.devices(pageSize);
+    }
+
+    @Benchmark
+    public void deviceResponseFrom(Blackhole bh) {
+        for (Device d : devices) {
+            bh.consume(DeviceResponse.from(d));
+        }
+    }
+}
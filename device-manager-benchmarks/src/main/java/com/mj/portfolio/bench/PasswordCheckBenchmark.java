@@ -0,0 +1,55 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.config.CachingPasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of checking Basic credentials, on one thread — i.e. checks/sec per core.
+ * {@code bcrypt} is what every request paid before the cache; {@code cached} is a repeat
+ * request from a client whose credentials were verified within the TTL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PasswordCheckBenchmark {
+
+    private BCryptPasswordEncoder bcrypt;
+    private CachingPasswordEncoder cached;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder();          // strength 10, as in SecurityConfig
+        cached = new CachingPasswordEncoder(bcrypt, 1000, Duration.ofMinutes(5));
+        hash = bcrypt.encode("admin123");
+        cached.matches("admin123", hash);
+    }
+
+    @Benchmark
+    public boolean bcrypt() {
+        return bcrypt.matches("admin123", hash);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return cached.matches("admin123", hash);
+    }
+}
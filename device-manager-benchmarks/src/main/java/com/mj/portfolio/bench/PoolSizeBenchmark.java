@@ -0,0 +1,102 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.service.DeviceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a mixed request load against the connection pool size, with the rest of the
+ * {@code perf} profile applied. 32 threads stand in for concurrent requests; each operation
+ * is one service call, so each holds a pooled connection for its transaction:
+ *
+ * <ul>
+ *   <li>85% — a page of 20 devices (with its count query) from the first 50 pages</li>
+ *   <li>10% — one device by id (the response cache is disabled, so this reaches the database)</li>
+ *   <li>5%  — a status change, which also writes its audit row</li>
+ * </ul>
+ *
+ * The useful number is where ops/s stops rising as {@code poolSize} grows: beyond it, requests
+ * only queue inside the database instead of inside the pool. PostgreSQL only (the status
+ * change is native SQL); run it on the target host for numbers worth configuring (see
+ * {@link SeededServer}):
+ *
+ * <pre>
+ *   java -Dbench.jdbc-url=... -jar target/benchmarks.jar PoolSize -p devices=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(32)
+@Fork(1)
+public class PoolSizeBenchmark {
+
+    private static final DeviceStatus[] STATUSES = {
+            DeviceStatus.ACTIVE, DeviceStatus.INACTIVE, DeviceStatus.MAINTENANCE
+    };
+
+    @State(Scope.Benchmark)
+    public static class PooledServer extends SeededServer {
+
+        @Param({"2", "5", "10", "20", "32"})
+        public int poolSize;
+
+        @Override
+        protected void configure(List<String> args, boolean postgres) {
+            args.add("--spring.profiles.include=perf");
+            args.add("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+            args.add("--spring.datasource.hikari.minimum-idle=" + poolSize);
+            // Queueing for a connection is the thing being measured; don't fail requests over it
+            args.add("--spring.datasource.hikari.connection-timeout=30000");
+            args.add("--device-manager.cache.device.max-size=0");
+        }
+    }
+
+    private DeviceService service;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp(PooledServer server) {
+        SeededServer.requirePostgres(PoolSizeBenchmark.class);
+        service = server.bean(DeviceService.class);
+        ids = server.bean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM devices ORDER BY id LIMIT 10000", UUID.class);
+    }
+
+    @Benchmark
+    public DeviceResponse mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 85) {
+            return service.findAll(null, null, null,
+                    PageRequest.of(random.nextInt(50), 20, Sort.by("name"))).getContent().get(0);
+        }
+        UUID id = ids.get(random.nextInt(ids.size()));
+        if (roll < 95) {
+            return service.findById(id);
+        }
+        return service.updateStatus(id, STATUSES[random.nextInt(STATUSES.length)]);
+    }
+}
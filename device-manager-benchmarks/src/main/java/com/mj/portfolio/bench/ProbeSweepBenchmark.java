@@ -0,0 +1,109 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.probe.TcpReachabilityProber;
+import com.mj.portfolio.probe.TcpReachabilityProber.Target;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One full {@link TcpReachabilityProber} sweep over {@code targets} distinct addresses, all in
+ * 127.0.0.0/8 (loopback on Linux), spread over /24s of 250 hosts. {@code refused} probes a
+ * closed port, so every connect is answered by a RST; {@code connected} probes a socket that
+ * accepts and closes each connection on a separate thread.
+ *
+ * The per-subnet rate limit is lifted, so this measures the selector loop and the local TCP
+ * stack, not the pacing: with the default 20 probes/s per /24, a sweep of N addresses can't
+ * take less than about {@code 250 / 20} seconds regardless of N. Needs a file-descriptor limit
+ * above {@code maxInFlight}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ProbeSweepBenchmark {
+
+    @Param({"10000", "100000"})
+    public int targets;
+
+    @Param({"refused", "connected"})
+    public String mode;
+
+    @Param({"512"})
+    public int maxInFlight;
+
+    private List<Target> addresses;
+    private TcpReachabilityProber prober;
+    private ServerSocket server;
+    private Thread acceptor;
+
+    @Setup
+    public void setUp() throws IOException {
+        addresses = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            byte[] ip = {127, (byte) (i / 250 / 250), (byte) (i / 250 % 250), (byte) (i % 250 + 1)};
+            addresses.add(new Target(UUID.randomUUID(), InetAddress.getByAddress(ip)));
+        }
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(0), 4096);
+        int port = server.getLocalPort();
+        if ("connected".equals(mode)) {
+            acceptor = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try (Socket ignored = server.accept()) {
+                        // Closing is all a probe needs
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "probe-bench-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        } else {
+            server.close();
+        }
+        prober = new TcpReachabilityProber(List.of(port), Duration.ofSeconds(2), maxInFlight, 0, 24);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int sweep() throws IOException {
+        AtomicInteger up = new AtomicInteger();
+        prober.sweep(addresses, r -> {
+            if (r.getOutcome().isUp()) {
+                up.incrementAndGet();
+            }
+        });
+        if (up.get() != targets) {
+            throw new IllegalStateException((targets - up.get()) + " of " + targets + " probes failed");
+        }
+        return up.get();
+    }
+}
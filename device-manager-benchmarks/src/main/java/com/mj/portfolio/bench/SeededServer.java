@@ -0,0 +1,97 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.DeviceManagerServerApp;
+import com.mj.portfolio.service.DeviceBatchService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full server application context, seeded with {@code devices} rows (one CREATED log each)
+ * through the real bulk-ingest path.
+ *
+ * By default it runs on an in-process H2 database in PostgreSQL mode, with tables generated by
+ * Hibernate. schema.sql is PostgreSQL-only (pg_trgm, inet), so its indexes — and the search
+ * queries that rely on them — are only exercised against a real server:
+ *
+ * <pre>
+ *   java -Dbench.jdbc-url=jdbc:postgresql://localhost:5432/devicedb_bench \
+ *        -Dbench.username=portfolio -Dbench.password=... -jar target/benchmarks.jar
+ * </pre>
+ *
+ * That database is TRUNCATED before seeding; never point it at real data.
+ */
+@State(Scope.Benchmark)
+public class SeededServer {
+
+    @Param({"1000", "100000"})
+    public int devices;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        String url = System.getProperty("bench.jdbc-url");
+        boolean postgres = url != null && !url.isBlank();
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=bench",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        if (postgres) {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("bench.username", "portfolio"));
+            args.add("--spring.datasource.password=" + System.getProperty("bench.password", ""));
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.sql.init.mode=never");
+            args.add("--spring.jpa.hibernate.ddl-auto=create");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        configure(args, postgres);
+        context = new SpringApplicationBuilder(DeviceManagerServerApp.class).run(args.toArray(String[]::new));
+
+        if (postgres) {
+            context.getBean(JdbcTemplate.class).execute("TRUNCATE devices, device_logs");
+        }
+        context.getBean(DeviceBatchService.class).createAll(BenchData.requests(devices));
+        if (postgres) {
+            context.getBean(JdbcTemplate.class).execute("ANALYZE devices; ANALYZE device_logs");
+        }
+    }
+
+    /** For benchmarks whose code under test runs only on PostgreSQL. */
+    static void requirePostgres(Class<?> benchmark) {
+        String url = System.getProperty("bench.jdbc-url");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException(benchmark.getSimpleName() + " needs PostgreSQL: set -Dbench.jdbc-url");
+        }
+    }
+
+    /** Extra command-line properties for subclasses, e.g. a pool size under test. */
+    protected void configure(List<String> args, boolean postgres) {
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
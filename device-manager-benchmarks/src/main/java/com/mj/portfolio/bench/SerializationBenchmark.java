@@ -0,0 +1,59 @@
+package com.mj.portfolio.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mj.portfolio.dto.DeviceResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** JSON encoding of a list response, i.e. what GET /api/v1/devices spends after the query. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private Page<DeviceResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same module set Spring MVC registers (JavaTimeModule etc.)
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        List<DeviceResponse> content = BenchData.devices(pageSize).stream().map(DeviceResponse::from).toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("name")), 50_000);
+    }
+
+    @Benchmark
+    public byte[] pageToBytes() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void pageToStream() throws Exception {
+        // Streaming to the socket skips the intermediate byte[]
+        mapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
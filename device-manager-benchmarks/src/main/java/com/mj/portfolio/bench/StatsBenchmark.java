@@ -0,0 +1,27 @@
+package com.mj.portfolio.bench;
+
+import com.mj.portfolio.dto.StatsResponse;
+import com.mj.portfolio.service.StatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Dashboard statistics in the default (query) mode: one GROUP BY plus the latest logs. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsBenchmark {
+
+    @Benchmark
+    public StatsResponse getStats(SeededServer server) {
+        return server.bean(StatsService.class).getStats();
+    }
+}
@@ -2,14 +2,15 @@ package com.mj.portfolio.client.controller;
 
 import com.mj.portfolio.client.AppContext;
 import com.mj.portfolio.client.model.Device;
+import com.mj.portfolio.client.model.DeviceChange;
 import com.mj.portfolio.client.model.DeviceStatus;
 import com.mj.portfolio.client.model.DeviceType;
 import com.mj.portfolio.client.service.DeviceApiService;
+import com.mj.portfolio.client.service.DeviceChangeStream;
+import com.mj.portfolio.client.service.LatencyHistogram;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -20,13 +21,14 @@ import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URL;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.ResourceBundle;
 
 public class MainController implements Initializable {
@@ -44,8 +46,17 @@ public class MainController implements Initializable {
     @FXML private HBox offlineBanner;
 
     private final DeviceApiService apiService = new DeviceApiService(AppContext.getApiClient());
-    private final ObservableList<Device> devices = FXCollections.observableArrayList();
-    private FilteredList<Device> filteredDevices;
+    // Only the pages the table has scrolled through are held; filters and sort run server-side
+    private final PagedDeviceList pagedDevices = new PagedDeviceList(apiService);
+    private final Map<TableColumn<Device, ?>, String> sortFields = new HashMap<>();
+
+    // Live updates: an updated device is swapped in where it is cached; creates, deletes and
+    // updates to the sort field move rows, so they refresh the visible pages once a burst settles
+    private DeviceChangeStream changeStream;
+    private boolean loadedOnce;
+    private final PauseTransition refreshLater = new PauseTransition(Duration.millis(300));
+    // Typing only searches once the keys pause; each new search cancels the one before it
+    private final PauseTransition searchLater = new PauseTransition(Duration.millis(250));
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
@@ -71,8 +82,33 @@ public class MainController implements Initializable {
         colIp.setCellValueFactory(new PropertyValueFactory<>("ipAddress"));
         colLocation.setCellValueFactory(new PropertyValueFactory<>("location"));
 
-        filteredDevices = new FilteredList<>(devices, p -> true);
-        deviceTable.setItems(filteredDevices);
+        // Rows ask for their page as they scroll into view. A fixed row height lets the
+        // table size the scrollbar from the item count without measuring rows.
+        deviceTable.setItems(pagedDevices);
+        deviceTable.setFixedCellSize(28);
+        deviceTable.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(Device device, boolean empty) {
+                super.updateItem(device, empty);
+                if (!empty) pagedDevices.request(getIndex());
+            }
+        });
+        sortFields.put(colName, "name");
+        sortFields.put(colType, "type");
+        sortFields.put(colStatus, "status");
+        sortFields.put(colIp, "ipAddress");
+        sortFields.put(colLocation, "location");
+        deviceTable.setSortPolicy(table -> {
+            pagedDevices.setSort(sortParam());
+            return true;
+        });
+        pagedDevices.setOnLoaded(() -> {
+            loadedOnce = true;
+            showConnected();
+            updateStatusBar();
+        });
+        pagedDevices.setOnError(this::showLoadError);
+        refreshLater.setOnFinished(e -> pagedDevices.refresh());
 
         // Status filter ComboBox
         statusFilter.setItems(FXCollections.observableArrayList(
@@ -80,32 +116,97 @@ public class MainController implements Initializable {
         statusFilter.setValue("ALL");
         statusFilter.setOnAction(e -> applyFilters());
 
-        // Search
-        searchField.textProperty().addListener((obs, old, val) -> applyFilters());
+        // Search: debounced while typing, immediate on Enter
+        searchLater.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, old, val) -> searchLater.playFromStart());
+        searchField.setOnAction(e -> {
+            searchLater.stop();
+            applyFilters();
+        });
+        statusBar.setTooltip(new Tooltip());
+        statusBar.getTooltip().setOnShowing(e ->
+                statusBar.getTooltip().setText(apiService.searchLatency().describe()));
 
-        // Double-click opens detail
+        // Double-click opens detail (a row still loading has no device yet)
         deviceTable.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2 && deviceTable.getSelectionModel().getSelectedItem() != null) {
                 openDetail(deviceTable.getSelectionModel().getSelectedItem());
             }
         });
 
-        loadDevices();
+        // The feed's first event ("hello") triggers the initial load, so no change can slip
+        // between the first page and the subscription
+        changeStream = new DeviceChangeStream(AppContext.getApiClient(), new DeviceChangeStream.Listener() {
+            @Override public void onChange(DeviceChange change) { Platform.runLater(() -> onServerChange(change)); }
+            @Override public void onResync()                    { Platform.runLater(MainController.this::loadDevices); }
+            @Override public void onConnected()                 { Platform.runLater(MainController.this::showConnected); }
+            @Override public void onDisconnected(Exception e)   { Platform.runLater(MainController.this::onFeedLost); }
+        });
+        changeStream.start();
+    }
+
+    private void onServerChange(DeviceChange change) {
+        if (!loadedOnce) return;
+        pagedDevices.invalidateQueries();
+        if (change.isDelete() || "CREATED".equals(change.getType()) || isFiltered()) {
+            // Rows move between pages (or in/out of the filter): refetch what is on screen
+            refreshLater.playFromStart();
+        } else if (sortKeyChanged(change.getDevice())) {
+            // Same row set, but this one now belongs somewhere else in the order
+            refreshLater.playFromStart();
+        } else {
+            pagedDevices.replace(change.getDevice());
+        }
+    }
+
+    private boolean sortKeyChanged(Device updated) {
+        Device cached = pagedDevices.find(updated.getId());
+        if (cached == null) return false;
+        String sort = sortParam();
+        String field = sort.substring(0, sort.indexOf(','));
+        return !Objects.equals(sortKey(cached, field), sortKey(updated, field));
+    }
+
+    private static Object sortKey(Device device, String field) {
+        return switch (field) {
+            case "type"      -> device.getType();
+            case "status"    -> device.getStatus();
+            case "ipAddress" -> device.getIpAddress();
+            case "location"  -> device.getLocation();
+            default          -> device.getName();
+        };
+    }
+
+    private void onFeedLost() {
+        if (!loadedOnce) {
+            // Never got a hello — fall back to a plain load so the offline banner can show
+            loadDevices();
+            return;
+        }
+        connectionLabel.setText("Reconnecting...");
+        connectionLabel.setStyle("-fx-text-fill: orange;");
+    }
+
+    // Local saves arrive back through the change feed; only reload if it is down
+    private void onLocalChange() {
+        if (!changeStream.isConnected()) loadDevices();
     }
 
     private void applyFilters() {
-        String query = searchField.getText().toLowerCase();
-        String statusVal = statusFilter.getValue();
-        filteredDevices.setPredicate(d -> {
-            boolean matchesSearch = query.isBlank()
-                    || d.getName().toLowerCase().contains(query)
-                    || (d.getIpAddress() != null && d.getIpAddress().contains(query))
-                    || (d.getLocation() != null && d.getLocation().toLowerCase().contains(query));
-            boolean matchesStatus = "ALL".equals(statusVal)
-                    || (d.getStatus() != null && d.getStatus().name().equals(statusVal));
-            return matchesSearch && matchesStatus;
-        });
-        updateStatusBar();
+        String status = "ALL".equals(statusFilter.getValue()) ? null : statusFilter.getValue();
+        pagedDevices.setFilters(status, searchField.getText());
+        deviceTable.scrollTo(0);
+    }
+
+    private boolean isFiltered() {
+        return !"ALL".equals(statusFilter.getValue()) || !searchField.getText().isBlank();
+    }
+
+    private String sortParam() {
+        if (deviceTable.getSortOrder().isEmpty()) return "name,asc";
+        TableColumn<Device, ?> column = deviceTable.getSortOrder().get(0);
+        String direction = column.getSortType() == TableColumn.SortType.DESCENDING ? "desc" : "asc";
+        return sortFields.getOrDefault(column, "name") + "," + direction;
     }
 
     @FXML
@@ -122,7 +223,7 @@ public class MainController implements Initializable {
         dialog.setScene(new Scene(loader.load(), 400, 320));
         DeviceFormController ctrl = loader.getController();
         ctrl.setApiService(apiService);
-        ctrl.setOnSaved(this::loadDevices);
+        ctrl.setOnSaved(this::onLocalChange);
         dialog.showAndWait();
     }
 
@@ -136,7 +237,7 @@ public class MainController implements Initializable {
             DeviceDetailController ctrl = loader.getController();
             ctrl.setDevice(device);
             ctrl.setApiService(apiService);
-            ctrl.setOnChanged(this::loadDevices);
+            ctrl.setOnChanged(this::onLocalChange);
             dialog.showAndWait();
         } catch (IOException e) {
             showError("Failed to open device detail", e.getMessage());
@@ -146,61 +247,54 @@ public class MainController implements Initializable {
     private void loadDevices() {
         connectionLabel.setText("Connecting...");
         connectionLabel.setStyle("-fx-text-fill: orange;");
+        if (loadedOnce) {
+            pagedDevices.refresh();
+        } else {
+            pagedDevices.reload();
+        }
+    }
 
-        Task<List<Device>> task = new Task<>() {
-            @Override
-            protected List<Device> call() throws Exception {
-                return apiService.getAll().get();
-            }
-        };
-
-        task.setOnSucceeded(e -> {
-            devices.setAll(task.getValue());
-            applyFilters();
-            connectionLabel.setText("Connected");
-            connectionLabel.setStyle("-fx-text-fill: #4caf50;");
-            offlineBanner.setVisible(false);
-            offlineBanner.setManaged(false);
-            updateStatusBar();
-        });
-
-        task.setOnFailed(e -> {
-            connectionLabel.setText("Disconnected");
-            connectionLabel.setStyle("-fx-text-fill: #f44336;");
-            offlineBanner.setVisible(true);
-            offlineBanner.setManaged(true);
-            statusBar.setText("Error loading devices: " + task.getException().getMessage());
-        });
+    private void showLoadError(Throwable cause) {
+        connectionLabel.setText("Disconnected");
+        connectionLabel.setStyle("-fx-text-fill: #f44336;");
+        offlineBanner.setVisible(true);
+        offlineBanner.setManaged(true);
+        statusBar.setText("Error loading devices: " + cause.getMessage());
+    }
 
-        new Thread(task, "device-loader").start();
+    private void showConnected() {
+        connectionLabel.setText("Connected");
+        connectionLabel.setStyle("-fx-text-fill: #4caf50;");
+        offlineBanner.setVisible(false);
+        offlineBanner.setManaged(false);
     }
 
     @FXML
     private void onExportCsv() {
         FileChooser fc = new FileChooser();
-        fc.setTitle("Export Devices as CSV");
-        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        fc.setTitle("Export Devices");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV files", "*.csv");
+        FileChooser.ExtensionFilter ndjson = new FileChooser.ExtensionFilter("NDJSON files", "*.ndjson");
+        fc.getExtensionFilters().addAll(csv, ndjson);
         fc.setInitialFileName("devices.csv");
         File file = fc.showSaveDialog(deviceTable.getScene().getWindow());
         if (file == null) return;
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-            pw.println("Name,Type,Status,IP Address,Location");
-            for (Device d : filteredDevices) {
-                pw.printf("%s,%s,%s,%s,%s%n",
-                        csvEscape(d.getName()), d.getType(), d.getStatus(),
-                        csvEscape(d.getIpAddress()), csvEscape(d.getLocation()));
-            }
-            statusBar.setText("Exported " + filteredDevices.size() + " devices to " + file.getName());
-        } catch (IOException e) {
-            showError("Export failed", e.getMessage());
-        }
-    }
 
-    private String csvEscape(String s) {
-        if (s == null) return "";
-        return s.contains(",") || s.contains("\"")
-                ? "\"" + s.replace("\"", "\"\"") + "\""
-                : s;
+        // The server streams every matching device; the file is written as bytes arrive
+        String format = fc.getSelectedExtensionFilter() == ndjson || file.getName().endsWith(".ndjson")
+                ? "ndjson" : "csv";
+        String status = "ALL".equals(statusFilter.getValue()) ? null : statusFilter.getValue();
+        statusBar.setText("Exporting to " + file.getName() + "...");
+        apiService.export(format, status, searchField.getText(), file.toPath())
+                .whenComplete((path, ex) -> Platform.runLater(() -> {
+                    if (ex != null) {
+                        showError("Export failed", ex.getMessage());
+                        updateStatusBar();
+                    } else {
+                        statusBar.setText("Exported devices to " + file.getName()
+                                + " (" + (file.length() / 1024) + " KB)");
+                    }
+                }));
     }
 
     @FXML
@@ -218,7 +312,13 @@ public class MainController implements Initializable {
     }
 
     private void updateStatusBar() {
-        statusBar.setText("Showing " + filteredDevices.size() + " of " + devices.size() + " devices");
+        String text = pagedDevices.size() + (isFiltered() ? " matching devices" : " devices");
+        LatencyHistogram latency = apiService.searchLatency();
+        if (!searchField.getText().isBlank() && latency.count() > 0) {
+            text += " · search " + latency.lastMillis() + " ms (p50 " + latency.percentile(0.5)
+                    + ", p95 " + latency.percentile(0.95) + ", n=" + latency.count() + ")";
+        }
+        statusBar.setText(text);
     }
 
     private void showError(String title, String msg) {
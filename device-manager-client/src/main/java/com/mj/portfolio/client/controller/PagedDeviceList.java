@@ -0,0 +1,243 @@
+package com.mj.portfolio.client.controller;
+
+import com.mj.portfolio.client.model.Device;
+import com.mj.portfolio.client.model.PageResponse;
+import com.mj.portfolio.client.service.DeviceApiService;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, server-backed items list for the device table. Only pages the table has shown
+ * are held, in a small LRU; everything else stays on the server.
+ *
+ * {@link #size()} is the server's total for the current filters. {@link #get(int)} never
+ * blocks: a row whose page isn't loaded yet is null (the table draws it empty). The table's
+ * rows call {@link #request(int)} as they come into view, which fetches the page in the
+ * background and, past the middle of a page, prefetches the next one. When a page arrives its
+ * range is announced as replaced and the visible cells redraw.
+ *
+ * Status, search and sort are passed to the server as status, q and sort. Changing them
+ * cancels every request still in flight, and the first page of each recent filter/sort
+ * combination is kept briefly, so going back to a query (e.g. after a backspace) shows its
+ * results without a round-trip. All methods must be called on the FX thread; responses from
+ * an older generation are dropped.
+ */
+public class PagedDeviceList extends ObservableListBase<Device> {
+
+    static final int PAGE_SIZE = 100;
+    static final int MAX_CACHED_PAGES = 50;
+    // Pages kept (and refetched) by refresh(): roughly what fits on screen around the viewport
+    private static final int REFRESH_PAGES = 3;
+    private static final int MAX_CACHED_QUERIES = 20;
+    private static final long QUERY_TTL_NANOS = 30_000_000_000L;
+
+    private final DeviceApiService api;
+    private final Map<Integer, List<Device>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Device>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, CompletableFuture<?>> inFlight = new HashMap<>();
+    // First page per "status|q|sort", stamped with System.nanoTime() when it arrived
+    private final Map<String, CachedPage> firstPages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    };
+
+    private String status;
+    private String query;
+    private String sort = "name,asc";
+    private int size;
+    private int generation;
+    private boolean sized;
+
+    private Runnable onLoaded = () -> {};
+    private Consumer<Throwable> onError = ex -> {};
+
+    public PagedDeviceList(DeviceApiService api) {
+        this.api = api;
+    }
+
+    /** Called when a generation's first page arrives, i.e. size() is current. */
+    public void setOnLoaded(Runnable onLoaded)          { this.onLoaded = onLoaded; }
+    public void setOnError(Consumer<Throwable> onError) { this.onError = onError; }
+
+    /** Applies new filters; null or blank means "no filter". Reloads only if they changed. */
+    public void setFilters(String status, String query) {
+        String q = query == null || query.isBlank() ? null : query.trim();
+        if (Objects.equals(status, this.status) && Objects.equals(q, this.query)) return;
+        this.status = status;
+        this.query = q;
+        reload();
+    }
+
+    /** Server sort, e.g. "name,asc". Reloads only if it changed. */
+    public void setSort(String sort) {
+        if (Objects.equals(sort, this.sort)) return;
+        this.sort = sort;
+        reload();
+    }
+
+    /** Drops every page and refetches from the first: the rows no longer mean the same thing. */
+    public void reload() {
+        startGeneration();
+        pages.clear();
+        CachedPage cached = firstPages.get(queryKey());
+        if (cached != null && System.nanoTime() - cached.at < QUERY_TTL_NANOS) {
+            loaded(0, cached.page);
+        } else {
+            fetch(0);
+        }
+    }
+
+    /** Forgets cached query results, e.g. because devices changed on the server. */
+    public void invalidateQueries() {
+        firstPages.clear();
+    }
+
+    /**
+     * Refetches the most recently viewed pages after the data changed underneath them. Their
+     * old rows stay on screen until the new ones arrive; other cached pages are dropped.
+     */
+    public void refresh() {
+        startGeneration();
+        List<Integer> recent = new ArrayList<>(pages.keySet());
+        recent = recent.subList(Math.max(0, recent.size() - REFRESH_PAGES), recent.size());
+        pages.keySet().retainAll(recent);
+        if (recent.isEmpty()) {
+            fetch(0);
+        } else {
+            // The page fetched first also sets the size; keep page 0 first when it is cached
+            recent.sort(null);
+            recent.forEach(this::fetch);
+        }
+    }
+
+    /** The cached copy of a device, or null if none of the held pages has it. */
+    public Device find(String id) {
+        for (List<Device> rows : pages.values()) {
+            for (Device d : rows) {
+                if (d.getId().equals(id)) return d;
+            }
+        }
+        return null;
+    }
+
+    /** Swaps in a newer copy of a device wherever it is cached; returns false if it isn't. */
+    public boolean replace(Device device) {
+        boolean found = false;
+        for (Map.Entry<Integer, List<Device>> e : pages.entrySet()) {
+            List<Device> rows = e.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId().equals(device.getId())) {
+                    Device old = rows.set(i, device);
+                    beginChange();
+                    nextSet(e.getKey() * PAGE_SIZE + i, old);
+                    endChange();
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    /** A row at {@code index} is on screen: load its page, and the next one past the midpoint. */
+    public void request(int index) {
+        if (index < 0 || index >= size) return;
+        int page = index / PAGE_SIZE;
+        if (!pages.containsKey(page)) {
+            fetch(page);
+        }
+        if (index % PAGE_SIZE >= PAGE_SIZE / 2 && (page + 1) * PAGE_SIZE < size && !pages.containsKey(page + 1)) {
+            fetch(page + 1);
+        }
+    }
+
+    @Override
+    public Device get(int index) {
+        Objects.checkIndex(index, size);
+        List<Device> rows = pages.get(index / PAGE_SIZE);
+        int offset = index % PAGE_SIZE;
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void startGeneration() {
+        generation++;
+        sized = false;
+        inFlight.values().forEach(f -> f.cancel(true));
+        inFlight.clear();
+    }
+
+    private void fetch(int page) {
+        if (inFlight.containsKey(page)) return;
+        int gen = generation;
+        String key = queryKey();
+        CompletableFuture<PageResponse<Device>> request = api.getPage(page, PAGE_SIZE, status, query, sort);
+        inFlight.put(page, request);
+        request.whenComplete((result, ex) -> Platform.runLater(() -> {
+            if (gen != generation) return;
+            inFlight.remove(page);
+            if (ex != null) {
+                onError.accept(ex.getCause() != null ? ex.getCause() : ex);
+                return;
+            }
+            if (page == 0) {
+                firstPages.put(key, new CachedPage(result, System.nanoTime()));
+            }
+            loaded(page, result);
+        }));
+    }
+
+    private String queryKey() {
+        return status + "|" + query + "|" + sort;
+    }
+
+    private void loaded(int page, PageResponse<Device> result) {
+        List<Device> rows = new ArrayList<>(result.getContent());
+        pages.put(page, rows);
+        int total = (int) Math.min(result.getTotalElements(), Integer.MAX_VALUE);
+        beginChange();
+        if (!sized) {
+            // First answer of this generation: every row may have changed, and so may the size
+            nextReplace(0, total, Collections.nCopies(size, null));
+            size = total;
+        } else {
+            int from = page * PAGE_SIZE;
+            int to = Math.min(from + rows.size(), size);
+            if (from < to) nextReplace(from, to, Collections.nCopies(to - from, null));
+        }
+        endChange();
+        if (!sized) {
+            sized = true;
+            onLoaded.run();
+        }
+    }
+
+    private static final class CachedPage {
+        final PageResponse<Device> page;
+        final long at;
+
+        CachedPage(PageResponse<Device> page, long at) {
+            this.page = page;
+            this.at   = at;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mj.portfolio.client.model;
+
+/** One entry from the server's /api/v1/devices/changes feed. */
+public class DeviceChange {
+
+    private String eventId;
+    private String type;        // CREATED, UPDATED or DELETED
+    private String deviceId;
+    private Device device;      // state after the change; last known state for DELETED
+    private String committedAt;
+
+    public DeviceChange() {}
+
+    public String getEventId()      { return eventId; }
+    public String getType()         { return type; }
+    public String getDeviceId()     { return deviceId; }
+    public Device getDevice()       { return device; }
+    public String getCommittedAt()  { return committedAt; }
+
+    public boolean isDelete()       { return "DELETED".equals(type); }
+}
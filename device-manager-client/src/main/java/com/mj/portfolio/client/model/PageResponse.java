@@ -0,0 +1,24 @@
+package com.mj.portfolio.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The parts of a Spring Data page (GET /api/v1/devices) the client reads; other fields are skipped. */
+public class PageResponse<T> {
+
+    private List<T> content = new ArrayList<>();
+    private long totalElements;
+    private int totalPages;
+    private int number;
+    private int size;
+    private boolean last;
+
+    public PageResponse() {}
+
+    public List<T> getContent()     { return content; }
+    public long getTotalElements()  { return totalElements; }
+    public int getTotalPages()      { return totalPages; }
+    public int getNumber()          { return number; }
+    public int getSize()            { return size; }
+    public boolean isLast()         { return last; }
+}
@@ -2,14 +2,29 @@ package com.mj.portfolio.client.service;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Thin wrapper around Java 17's built-in java.net.http.HttpClient.
@@ -19,11 +34,20 @@ import java.util.Base64;
 public class ApiClient {
 
     private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_VALIDATED = 64;
 
     private final String baseUrl;
     private final HttpClient httpClient;
     final Gson gson;
     private String authHeader;
+    // Last validated value per path, for getJsonConditionalAsync; least recently used dropped first
+    private final Map<String, Validated> validated = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Validated> eldest) {
+            return size() > MAX_VALIDATED;
+        }
+    };
 
     public ApiClient() {
         this.baseUrl = System.getProperty("api.baseUrl", DEFAULT_BASE_URL);
@@ -53,6 +77,120 @@ public class ApiClient {
         return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
     }
 
+    /**
+     * Non-blocking conditional GET for a JSON body, parsed into {@code type} on {@code executor}
+     * as it streams in (inflated if it came gzipped). The parsed value of the last 200 for each
+     * path that came with an ETag is kept; the next request for that path sends the tag as
+     * If-None-Match, and a 304 is answered with the kept value without reading or parsing
+     * anything. Kept values are handed to every caller, so they must not be modified.
+     * Cancelling the returned future aborts the exchange.
+     */
+    public <T> CompletableFuture<ConditionalResponse<T>> getJsonConditionalAsync(String path, Type type,
+                                                                                Executor executor) {
+        Validated cached;
+        synchronized (validated) {
+            Validated v = validated.get(path);
+            cached = v != null && v.type.equals(type) ? v : null;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (authHeader != null) builder.header("Authorization", authHeader);
+        if (cached != null) builder.header("If-None-Match", cached.etag);
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<ConditionalResponse<T>> result = exchange.thenApplyAsync(resp -> {
+            if (resp.statusCode() != 200) {
+                discard(resp.body());
+                if (resp.statusCode() == 304 && cached != null) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) cached.value;
+                    return new ConditionalResponse<>(200, true, value);
+                }
+                return new ConditionalResponse<T>(resp.statusCode(), false, null);
+            }
+            T value;
+            try {
+                value = readJson(resp, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Optional<String> etag = resp.headers().firstValue("ETag");
+            synchronized (validated) {
+                if (etag.isPresent()) {
+                    validated.put(path, new Validated(etag.get(), type, value));
+                } else {
+                    validated.remove(path);
+                }
+            }
+            return new ConditionalResponse<>(200, false, value);
+        }, executor);
+        // Cancelling the dependent future doesn't reach the exchange on its own
+        result.whenComplete((r, ex) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    // Parses a streamed response body, inflating it if it came gzipped. Closes the body.
+    private <T> T readJson(HttpResponse<InputStream> response, Type type) throws IOException {
+        InputStream body = response.body();
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map("gzip"::equalsIgnoreCase).orElse(false);
+        return readJson(gzip ? new GZIPInputStream(body, STREAM_BUFFER_SIZE) : body, type);
+    }
+
+    private static void discard(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // Nothing was wanted from it
+        }
+    }
+
+    /** Streams JSON from {@code in} straight into {@code type} with a Gson JsonReader. Closes {@code in}. */
+    public <T> T readJson(InputStream in, Type type) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                new BufferedInputStream(in, STREAM_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            return gson.fromJson(reader, type);
+        }
+    }
+
+    /**
+     * Opens a Server-Sent Events stream. No request timeout is set: the response stays open
+     * until either side closes it, and lines are delivered as they arrive.
+     */
+    public HttpResponse<Stream<String>> openEventStream(String path, String lastEventId)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Accept", "text/event-stream")
+                .GET();
+        if (authHeader != null) builder.header("Authorization", authHeader);
+        if (lastEventId != null) builder.header("Last-Event-ID", lastEventId);
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofLines());
+    }
+
+    /**
+     * Streams a GET response body straight into {@code target} as it arrives, so the download
+     * is never held in memory. Only a 200 body is written; other statuses leave the file
+     * untouched and come back with a null body. No request timeout: large exports take a while.
+     */
+    public HttpResponse<Path> download(String path, String accept, Path target)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Accept", accept)
+                .GET();
+        if (authHeader != null) builder.header("Authorization", authHeader);
+        return httpClient.send(builder.build(), info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.ofFile(target)
+                : HttpResponse.BodySubscribers.replacing(null));
+    }
+
     public HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
         String json = gson.toJson(body);
         HttpRequest.Builder builder = HttpRequest.newBuilder()
@@ -85,4 +223,35 @@ public class ApiClient {
         if (authHeader != null) builder.header("Authorization", authHeader);
         return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
     }
+
+    /** Result of {@link #getJsonConditionalAsync}: a 304 answered from the cache reports status 200. */
+    public static final class ConditionalResponse<T> {
+        private final int statusCode;
+        private final boolean notModified;
+        private final T body;
+
+        ConditionalResponse(int statusCode, boolean notModified, T body) {
+            this.statusCode  = statusCode;
+            this.notModified = notModified;
+            this.body        = body;
+        }
+
+        public int statusCode()       { return statusCode; }
+        /** True if the server answered 304 and the body is the kept value. */
+        public boolean isNotModified() { return notModified; }
+        /** The parsed body of a 200 (or of a 304 answered from the cache); null otherwise. */
+        public T body()               { return body; }
+    }
+
+    private static final class Validated {
+        final String etag;
+        final Type type;
+        final Object value;
+
+        Validated(String etag, Type type, Object value) {
+            this.etag  = etag;
+            this.type  = type;
+            this.value = value;
+        }
+    }
 }
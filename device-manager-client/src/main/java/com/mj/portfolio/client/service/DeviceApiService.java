@@ -2,12 +2,14 @@ package com.mj.portfolio.client.service;
 
 import com.google.gson.reflect.TypeToken;
 import com.mj.portfolio.client.model.Device;
+import com.mj.portfolio.client.model.PageResponse;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.net.URLEncoder;
 import java.net.http.HttpResponse;
-import java.util.Collections;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -20,35 +22,77 @@ import java.util.concurrent.Executors;
 public class DeviceApiService {
 
     private static final String BASE_PATH = "/api/v1/devices";
-    private static final Executor POOL = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r, "api-worker");
-        t.setDaemon(true);
-        return t;
-    });
+    private static final Type DEVICE_PAGE = TypeToken.getParameterized(PageResponse.class, Device.class).getType();
+    private static final Executor POOL = createPool();
 
     private final ApiClient client;
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
 
     public DeviceApiService(ApiClient client) {
         this.client = client;
     }
 
-    public CompletableFuture<List<Device>> getAll() {
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * -Dapi.virtualThreads=true on Java 21+: one virtual thread per call, so blocking HTTP
+     * requests cost no platform thread. Otherwise (or on Java 17) a cached daemon pool.
+     * Looked up reflectively so the Java 17 build still compiles.
+     */
+    static Executor createPool() {
+        if (Boolean.getBoolean("api.virtualThreads")) {
             try {
-                HttpResponse<String> resp = client.get(BASE_PATH + "?size=200&sort=name");
-                if (resp.statusCode() == 200) {
-                    // Spring Page JSON: { "content": [...] }
-                    Type mapType = new TypeToken<Map<String, Object>>(){}.getType();
-                    Map<String, Object> page = client.gson.fromJson(resp.body(), mapType);
-                    String contentJson = client.gson.toJson(page.get("content"));
-                    Type listType = new TypeToken<List<Device>>(){}.getType();
-                    return client.gson.fromJson(contentJson, listType);
-                }
-                return Collections.emptyList();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to fetch devices", e);
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Older runtime: fall back to platform threads
             }
-        }, POOL);
+        }
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "api-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * One page of devices, ordered by {@code sort} (e.g. "name,asc"; ignored by search, which
+     * ranks by relevance). Null {@code status} or blank {@code query} means no filter.
+     *
+     * Cancelling the returned future aborts the HTTP request, so superseded searches stop
+     * costing the server anything. Completed searches are timed into {@link #searchLatency()}.
+     * Pages are parsed as they stream in and revalidated with their ETag: while no device has
+     * changed, the server answers 304 without querying and the page parsed last time is returned.
+     * Returned pages may be shared and must not be modified.
+     */
+    public CompletableFuture<PageResponse<Device>> getPage(int page, int size, String status,
+                                                           String query, String sort) {
+        StringBuilder path = new StringBuilder(BASE_PATH)
+                .append("?page=").append(page)
+                .append("&size=").append(size)
+                .append("&sort=").append(URLEncoder.encode(sort, StandardCharsets.UTF_8));
+        if (status != null) path.append("&status=").append(status);
+        boolean search = query != null && !query.isBlank();
+        if (search) {
+            path.append("&q=").append(URLEncoder.encode(query.trim(), StandardCharsets.UTF_8));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<ApiClient.ConditionalResponse<PageResponse<Device>>> response =
+                client.getJsonConditionalAsync(path.toString(), DEVICE_PAGE, POOL);
+        CompletableFuture<PageResponse<Device>> result = response.thenApply(resp -> {
+            if (resp.statusCode() != 200) {
+                throw new RuntimeException("Failed to fetch devices: HTTP " + resp.statusCode());
+            }
+            if (search) searchLatency.record(System.nanoTime() - start);
+            return resp.body();
+        });
+        // Cancelling the dependent future doesn't reach the exchange on its own
+        result.whenComplete((r, ex) -> {
+            if (result.isCancelled()) response.cancel(true);
+        });
+        return result;
+    }
+
+    /** Round-trip times of completed search pages (requests with a q filter). */
+    public LatencyHistogram searchLatency() {
+        return searchLatency;
     }
 
     public CompletableFuture<Device> getById(String id) {
@@ -65,6 +109,30 @@ public class DeviceApiService {
         }, POOL);
     }
 
+    /**
+     * Downloads every device matching the filters (server-side, not just the loaded page) into
+     * {@code target}. {@code format} is "csv" or "ndjson"; null filters are omitted.
+     */
+    public CompletableFuture<Path> export(String format, String status, String query, Path target) {
+        return CompletableFuture.supplyAsync(() -> {
+            StringBuilder path = new StringBuilder(BASE_PATH + "/export?format=").append(format);
+            if (status != null) path.append("&status=").append(status);
+            if (query != null && !query.isBlank()) {
+                path.append("&q=").append(URLEncoder.encode(query.trim(), StandardCharsets.UTF_8));
+            }
+            String accept = "ndjson".equals(format) ? "application/x-ndjson" : "text/csv";
+            try {
+                HttpResponse<Path> resp = client.download(path.toString(), accept, target);
+                if (resp.statusCode() == 200) {
+                    return resp.body();
+                }
+                throw new RuntimeException("Export failed: HTTP " + resp.statusCode());
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException("Failed to export devices", e);
+            }
+        }, POOL);
+    }
+
     public CompletableFuture<Device> create(Map<String, Object> requestBody) {
         return CompletableFuture.supplyAsync(() -> {
             try {
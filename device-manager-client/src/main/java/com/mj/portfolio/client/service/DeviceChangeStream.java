@@ -0,0 +1,137 @@
+package com.mj.portfolio.client.service;
+
+import com.mj.portfolio.client.model.DeviceChange;
+
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Follows the server's Server-Sent Events change feed on a background daemon thread and
+ * reconnects with exponential backoff, resuming from the last event id seen.
+ *
+ * Callbacks run on the stream thread; UI code must hop to the FX thread itself.
+ */
+public class DeviceChangeStream {
+
+    public interface Listener {
+        /** A device was created, updated or deleted on the server. */
+        void onChange(DeviceChange change);
+
+        /** Local state cannot be patched incrementally (first connect, or the gap is too old): reload. */
+        void onResync();
+
+        void onConnected();
+
+        void onDisconnected(Exception cause);
+    }
+
+    private static final String PATH = "/api/v1/devices/changes";
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final ApiClient client;
+    private final Listener listener;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile String lastEventId;
+    private Thread thread;
+
+    public DeviceChangeStream(ApiClient client, Listener listener) {
+        this.client   = client;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "device-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    public boolean isConnected() { return connected; }
+
+    private void run() {
+        long backoff = MIN_BACKOFF_MS;
+        while (running) {
+            try {
+                HttpResponse<Stream<String>> resp = client.openEventStream(PATH, lastEventId);
+                if (resp.statusCode() != 200) {
+                    resp.body().close();
+                    throw new IllegalStateException("Change feed returned HTTP " + resp.statusCode());
+                }
+                connected = true;
+                backoff = MIN_BACKOFF_MS;
+                listener.onConnected();
+                try (Stream<String> lines = resp.body()) {
+                    consume(lines.iterator());
+                }
+                connected = false;
+                listener.onDisconnected(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                connected = false;
+                listener.onDisconnected(e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+        connected = false;
+    }
+
+    // Minimal SSE parser: "id:", "event:" and "data:" fields, blank line dispatches, ":" is a comment
+    private void consume(Iterator<String> lines) {
+        String id = null;
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        while (running && lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                dispatch(id, event, data.toString());
+                id = null;
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                // keep-alive comment
+            } else if (line.startsWith("id:")) {
+                id = field(line, 3);
+            } else if (line.startsWith("event:")) {
+                event = field(line, 6);
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) data.append('\n');
+                data.append(field(line, 5));
+            }
+        }
+    }
+
+    private void dispatch(String id, String event, String data) {
+        if (event == null && data.isEmpty()) return;
+        if ("hello".equals(event) || "reset".equals(event)) {
+            lastEventId = id;
+            listener.onResync();
+            return;
+        }
+        DeviceChange change = client.gson.fromJson(data, DeviceChange.class);
+        listener.onChange(change);
+        // Only advance once the change has been handed over, so a crash mid-dispatch replays it
+        if (id != null) lastEventId = id;
+    }
+
+    private static String field(String line, int prefixLength) {
+        String value = line.substring(prefixLength);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mj.portfolio.client.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket latency histogram, safe to record into from any thread. Percentiles are
+ * reported as the upper bound of the bucket they fall in, which is plenty for a status bar.
+ */
+public class LatencyHistogram {
+
+    // Upper bounds in milliseconds; the last bucket catches everything slower
+    private static final long[] BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length + 1);
+    private volatile long lastMillis = -1;
+
+    public void record(long nanos) {
+        long ms = nanos / 1_000_000;
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) i++;
+        buckets.incrementAndGet(i);
+        lastMillis = ms;
+    }
+
+    /** Most recent sample in milliseconds, or -1 before the first. */
+    public long lastMillis() {
+        return lastMillis;
+    }
+
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < buckets.length(); i++) n += buckets.get(i);
+        return n;
+    }
+
+    /** Bucket holding the {@code p}-th percentile (0..1), e.g. "≤100 ms"; "-" when empty. */
+    public String percentile(double p) {
+        long n = count();
+        if (n == 0) return "-";
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return label(i);
+        }
+        return label(BOUNDS_MS.length);
+    }
+
+    /** One line per non-empty bucket, e.g. "≤100 ms: 12". */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < buckets.length(); i++) {
+            long c = buckets.get(i);
+            if (c == 0) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(label(i)).append(": ").append(c);
+        }
+        return sb.length() == 0 ? "No searches yet" : sb.toString();
+    }
+
+    private static String label(int bucket) {
+        return bucket < BOUNDS_MS.length
+                ? "≤" + BOUNDS_MS[bucket] + " ms"
+                : ">" + BOUNDS_MS[BOUNDS_MS.length - 1] + " ms";
+    }
+}
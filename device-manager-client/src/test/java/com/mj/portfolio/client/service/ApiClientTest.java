@@ -0,0 +1,137 @@
+package com.mj.portfolio.client.service;
+
+import com.google.gson.reflect.TypeToken;
+import com.mj.portfolio.client.model.Device;
+import com.mj.portfolio.client.model.PageResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ApiClientTest {
+
+    private static final Type DEVICE_PAGE = TypeToken.getParameterized(PageResponse.class, Device.class).getType();
+    private static final String PAGE_JSON = "{\"content\":[{\"id\":\"d1\",\"name\":\"router-1\",\"status\":\"ACTIVE\"}],"
+            + "\"totalElements\":1,\"totalPages\":1,\"number\":0,\"size\":20,\"last\":true}";
+    private static final Executor DIRECT = Runnable::run;
+
+    private HttpServer server;
+    private ApiClient client;
+    // If-None-Match of every request the stub received, "" when absent
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private volatile String etag = "\"v1\"";
+    private volatile boolean gzip;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/v1/devices", this::handle);
+        server.start();
+        System.setProperty("api.baseUrl", "http://localhost:" + server.getAddress().getPort());
+        client = new ApiClient();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("api.baseUrl");
+        server.stop(0);
+    }
+
+    @Test
+    public void notModifiedIsAnsweredWithTheValueParsedFromTheLast200() throws Exception {
+        ApiClient.ConditionalResponse<PageResponse<Device>> first = get();
+        ApiClient.ConditionalResponse<PageResponse<Device>> second = get();
+
+        assertEquals(200, first.statusCode());
+        assertFalse(first.isNotModified());
+        assertEquals("router-1", first.body().getContent().get(0).getName());
+        assertEquals(200, second.statusCode());
+        assertTrue(second.isNotModified());
+        assertSame(first.body(), second.body());
+        assertEquals(List.of("", "\"v1\""), ifNoneMatch);
+    }
+
+    @Test
+    public void gzippedBodyIsInflatedAndReplayed() throws Exception {
+        gzip = true;
+
+        ApiClient.ConditionalResponse<PageResponse<Device>> first = get();
+        ApiClient.ConditionalResponse<PageResponse<Device>> second = get();
+
+        assertEquals(1, first.body().getTotalElements());
+        assertTrue(second.isNotModified());
+        assertSame(first.body(), second.body());
+    }
+
+    @Test
+    public void changedTagIsFetchedAndParsedAgain() throws Exception {
+        ApiClient.ConditionalResponse<PageResponse<Device>> first = get();
+        etag = "\"v2\"";
+        ApiClient.ConditionalResponse<PageResponse<Device>> second = get();
+        ApiClient.ConditionalResponse<PageResponse<Device>> third = get();
+
+        assertFalse(second.isNotModified());
+        assertNotSame(first.body(), second.body());
+        assertTrue(third.isNotModified());
+        assertSame(second.body(), third.body());
+        assertEquals(List.of("", "\"v1\"", "\"v2\""), ifNoneMatch);
+    }
+
+    @Test
+    public void responseWithoutTagIsNotKept() throws Exception {
+        etag = null;
+
+        get();
+        ApiClient.ConditionalResponse<PageResponse<Device>> second = get();
+
+        assertFalse(second.isNotModified());
+        assertEquals(List.of("", ""), ifNoneMatch);
+    }
+
+    private ApiClient.ConditionalResponse<PageResponse<Device>> get() throws Exception {
+        return client.<PageResponse<Device>>getJsonConditionalAsync("/api/v1/devices?page=0", DEVICE_PAGE, DIRECT)
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String tag = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatch.add(tag == null ? "" : tag);
+        if (etag != null && etag.equals(tag)) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = PAGE_JSON.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(body);
+            }
+            body = bytes.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (etag != null) exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
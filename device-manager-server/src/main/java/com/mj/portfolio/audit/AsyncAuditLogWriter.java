@@ -0,0 +1,202 @@
+package com.mj.portfolio.audit;
+
+import com.mj.portfolio.dto.AuditStatsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in writer ({@code device-manager.audit.mode=async}): entries are handed to a bounded
+ * queue once their transaction commits and a single background thread drains it, inserting
+ * up to {@code flush-size} rows per statement. A flush happens when a batch is full or
+ * {@code flush-interval} after its first entry, whichever comes first.
+ *
+ * Request latency no longer includes the audit INSERT, at the cost of durability: entries
+ * still queued when the process dies are lost, and a committed change may be visible a
+ * moment before its log rows are. Entries of rolled-back transactions are never queued.
+ *
+ * When the queue is full, {@code overflow} decides: {@code caller-runs} (default) inserts on
+ * the committing thread, {@code block} waits up to {@code offer-timeout} for space and then
+ * falls back to caller-runs, {@code drop} discards the entry and counts it.
+ *
+ * Lost entries (dropped, failed, or queued by a previous process) move {@link #lostUntil()},
+ * so delta sync knows which DELETED tombstones it can no longer vouch for.
+ */
+@Component
+@ConditionalOnProperty(name = "device-manager.audit.mode", havingValue = "async")
+public class AsyncAuditLogWriter implements AuditLogWriter {
+
+    enum Overflow { CALLER_RUNS, BLOCK, DROP }
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditLogWriter.class);
+
+    private final DeviceLogBatchInserter inserter;
+    private final BlockingQueue<AuditEntry> queue;
+    private final int capacity;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final Overflow overflow;
+    private final long offerTimeoutNanos;
+    private final Thread worker;
+    private final FlushMetrics metrics = new FlushMetrics();
+    private final LongAdder dropped    = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    // A previous process may have died with entries queued, so nothing before our start is vouched for
+    private final AtomicReference<LocalDateTime> lostUntil = new AtomicReference<>(LocalDateTime.now());
+
+    private volatile boolean running = true;
+
+    public AsyncAuditLogWriter(DeviceLogBatchInserter inserter,
+                               @Value("${device-manager.audit.queue-capacity:10000}") int capacity,
+                               @Value("${device-manager.audit.flush-size:500}") int flushSize,
+                               @Value("${device-manager.audit.flush-interval:PT0.2S}") Duration flushInterval,
+                               @Value("${device-manager.audit.overflow:caller-runs}") String overflow,
+                               @Value("${device-manager.audit.offer-timeout:PT0.05S}") Duration offerTimeout) {
+        this.inserter           = inserter;
+        this.capacity           = Math.max(1, capacity);
+        this.queue              = new ArrayBlockingQueue<>(this.capacity);
+        this.flushSize          = Math.max(1, flushSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflow           = Overflow.valueOf(overflow.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.offerTimeoutNanos  = offerTimeout.toNanos();
+        this.worker = new Thread(this::drainLoop, "audit-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void write(AuditEntry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+    }
+
+    @Override
+    public AuditStatsResponse stats() {
+        return new AuditStatsResponse("ASYNC", queue.size(), capacity, metrics.written.sum(), dropped.sum(),
+                overflowed.sum(), metrics.failed.sum(), metrics.flushes(),
+                metrics.meanFlushMillis(), metrics.maxFlushMillis());
+    }
+
+    @Override
+    public LocalDateTime lostUntil() {
+        return lostUntil.get();
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(AuditEntry entry) {
+        if (queue.offer(entry)) {
+            return;
+        }
+        switch (overflow) {
+            case DROP -> {
+                dropped.increment();
+                lost(entry);
+                log.warn("Audit queue full ({}); dropped {} entry for device {}",
+                        capacity, entry.getAction(), entry.getDeviceId());
+            }
+            case BLOCK -> {
+                try {
+                    if (queue.offer(entry, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                writeOnCaller(entry);
+            }
+            case CALLER_RUNS -> writeOnCaller(entry);
+        }
+    }
+
+    private void writeOnCaller(AuditEntry entry) {
+        overflowed.increment();
+        flush(new ArrayList<>(List.of(entry)));
+    }
+
+    private void drainLoop() {
+        List<AuditEntry> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize && running) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || wait <= 0) {
+                        break;
+                    }
+                    AuditEntry next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // shutdown() interrupts to cut the linger short; the loop drains what is left
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            }
+        }
+    }
+
+    private void flush(List<AuditEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            inserter.insertAll(batch);
+            metrics.recordFlush(batch.size(), System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.failed.add(batch.size());
+            batch.forEach(this::lost);
+            log.error("Failed to write {} audit log entries", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void lost(AuditEntry entry) {
+        lostUntil.accumulateAndGet(entry.getCreatedAt(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            log.warn("Audit writer stopped with {} entries still queued", queue.size());
+        }
+    }
+}
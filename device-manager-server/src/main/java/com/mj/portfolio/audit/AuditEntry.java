@@ -0,0 +1,37 @@
+package com.mj.portfolio.audit;
+
+import com.mj.portfolio.dto.DeviceLogResponse;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A device_logs row prepared in memory. Id and timestamp are assigned up front, so the
+ * entry can be reported (API responses, change feed) before it is actually inserted.
+ */
+public final class AuditEntry {
+
+    private final UUID id;
+    private final UUID deviceId;
+    private final String action;
+    private final String description;
+    private final LocalDateTime createdAt;
+
+    public AuditEntry(UUID deviceId, String action, String description) {
+        this.id          = UUID.randomUUID();
+        this.deviceId    = deviceId;
+        this.action      = action;
+        this.description = description;
+        this.createdAt   = LocalDateTime.now();
+    }
+
+    public UUID getId()                 { return id; }
+    public UUID getDeviceId()           { return deviceId; }
+    public String getAction()           { return action; }
+    public String getDescription()      { return description; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public DeviceLogResponse toResponse() {
+        return DeviceLogResponse.of(id, deviceId, action, description, createdAt);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mj.portfolio.audit;
+
+import com.mj.portfolio.dto.AuditStatsResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * Destination for device audit entries. Implementations differ in when the row reaches
+ * device_logs: inside the caller's transaction ({@link TransactionalAuditLogWriter}, default)
+ * or shortly after commit from a background thread ({@link AsyncAuditLogWriter}).
+ *
+ * Selected with {@code device-manager.audit.mode}.
+ */
+public interface AuditLogWriter {
+
+    void write(AuditEntry entry);
+
+    AuditStatsResponse stats();
+
+    /**
+     * Newest created_at of an entry this writer may have lost (dropped, failed to insert, or
+     * still queued when a previous process stopped), or null if it never loses any. Rows
+     * created at or before it can't be relied on to be in device_logs.
+     */
+    LocalDateTime lostUntil();
+}
@@ -0,0 +1,64 @@
+package com.mj.portfolio.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes audit entries with one multi-row INSERT per chunk instead of one statement per row.
+ *
+ * device_id goes through a LEFT JOIN on devices: an entry whose device has been deleted by
+ * the time it is written (DELETED entries, or anything queued by the async writer) lands
+ * with device_id NULL — the same state ON DELETE SET NULL would have produced.
+ */
+@Component
+public class DeviceLogBatchInserter {
+
+    // PostgreSQL caps a statement at 65535 bind parameters; 5 per row
+    static final int MAX_ROWS_PER_STATEMENT = 10_000;
+
+    private static final String HEAD =
+            "INSERT INTO device_logs (id, device_id, device_ref, action, description, created_at) " +
+            "SELECT v.id, d.id, v.device_id, v.action, v.description, v.created_at FROM (VALUES ";
+    private static final String ROW =
+            "(CAST(? AS uuid), CAST(? AS uuid), CAST(? AS varchar), CAST(? AS text), CAST(? AS timestamp))";
+    private static final String TAIL =
+            ") AS v(id, device_id, action, description, created_at) LEFT JOIN devices d ON d.id = v.device_id";
+
+    private final JdbcTemplate jdbc;
+
+    public DeviceLogBatchInserter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insertAll(List<AuditEntry> entries) {
+        for (int from = 0; from < entries.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<AuditEntry> chunk = entries.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, entries.size()));
+            jdbc.update(sql(chunk.size()), ps -> bind(ps, chunk));
+        }
+    }
+
+    private static String sql(int rows) {
+        StringBuilder sb = new StringBuilder(HEAD.length() + rows * (ROW.length() + 1) + TAIL.length());
+        sb.append(HEAD);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ROW);
+        }
+        return sb.append(TAIL).toString();
+    }
+
+    private static void bind(PreparedStatement ps, List<AuditEntry> chunk) throws SQLException {
+        int p = 1;
+        for (AuditEntry e : chunk) {
+            ps.setObject(p++, e.getId());
+            ps.setObject(p++, e.getDeviceId());
+            ps.setString(p++, e.getAction());
+            ps.setString(p++, e.getDescription());
+            ps.setObject(p++, e.getCreatedAt());
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.mj.portfolio.audit;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps device_logs range-partitioned by calendar month on created_at.
+ *
+ * On startup and then on maintenance-cron it:
+ * <ul>
+ *   <li>converts a device_logs created before partitioning (or by Hibernate's ddl-auto)
+ *       into the partitioned table from schema.sql, copying its rows in one transaction;</li>
+ *   <li>makes sure the DEFAULT partition and one partition per month up to months-ahead
+ *       exist, so inserts only land in DEFAULT if maintenance stops running;</li>
+ *   <li>with retention enabled, detaches every month that ended before the retention window,
+ *       writes its rows to {@code archive-dir/<partition>.ndjson.gz} and drops it.</li>
+ * </ul>
+ *
+ * Retiring a month is a DETACH plus a DROP, so no DELETE runs and no dead tuples are left to
+ * vacuum. A partition is dropped only once its archive is fully written and synced; one left
+ * detached by a failed run is archived by the next.
+ *
+ * Does nothing on databases other than PostgreSQL (the benchmarks can run on H2).
+ */
+@Component
+@ConditionalOnProperty(name = "device-manager.logs.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceLogPartitionManager.class);
+
+    static final String DEFAULT_PARTITION = "device_logs_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("device_logs_p(\\d{4})(\\d{2})");
+    private static final String LEGACY_TABLE = "device_logs_unpartitioned";
+    private static final String COLUMNS = "id, device_id, device_ref, action, description, created_at";
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectWriter jsonWriter;
+    private final Resource schema;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    private volatile Boolean postgres;
+
+    public DeviceLogPartitionManager(JdbcTemplate jdbc,
+                                     PlatformTransactionManager txManager,
+                                     ObjectMapper objectMapper,
+                                     @Value("${spring.sql.init.schema-locations:classpath:db/schema.sql}") Resource schema,
+                                     @Value("${device-manager.logs.partitioning.months-ahead:3}") int monthsAhead,
+                                     @Value("${device-manager.logs.retention.months:0}") int retentionMonths,
+                                     @Value("${device-manager.logs.retention.archive-dir:archive/device-logs}") String archiveDir) {
+        this.jdbc            = jdbc;
+        this.tx              = new TransactionTemplate(txManager);
+        this.jsonWriter      = objectMapper.writerFor(ArchivedLog.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.schema          = schema;
+        this.monthsAhead     = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(0, retentionMonths);
+        this.archiveDir      = Path.of(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${device-manager.logs.partitioning.maintenance-cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        if (!isPostgres()) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        try {
+            migrateIfUnpartitioned(now);
+            createPartitions(now, now.plusMonths(monthsAhead));
+            if (retentionMonths > 0) {
+                retireBefore(now.minusMonths(retentionMonths));
+            }
+        } catch (RuntimeException | IOException e) {
+            log.error("device_logs partition maintenance failed", e);
+        }
+    }
+
+    // --- Partition creation -------------------------------------------------------------
+
+    private void migrateIfUnpartitioned(YearMonth now) {
+        List<String> kind = jdbc.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('device_logs')", String.class);
+        if (kind.isEmpty() || !"r".equals(kind.get(0))) {
+            return;
+        }
+        log.info("Converting device_logs to a monthly partitioned table");
+        long rows = tx.execute(status -> {
+            jdbc.execute("ALTER TABLE device_logs RENAME TO " + LEGACY_TABLE);
+            // Free the names schema.sql is about to reuse for the partitioned table
+            for (String pkey : jdbc.queryForList("SELECT conname::text FROM pg_constraint " +
+                    "WHERE conrelid = '" + LEGACY_TABLE + "'::regclass AND contype = 'p'", String.class)) {
+                jdbc.execute("ALTER TABLE " + LEGACY_TABLE + " RENAME CONSTRAINT " + pkey + " TO " + LEGACY_TABLE + "_pkey");
+            }
+            jdbc.execute("DROP INDEX IF EXISTS idx_device_logs_device_id, idx_device_logs_device_created, idx_device_logs_created");
+            jdbc.execute((ConnectionCallback<Void>) con -> {
+                ScriptUtils.executeSqlScript(con, schema);
+                return null;
+            });
+
+            LocalDateTime oldest = jdbc.queryForObject("SELECT min(created_at) FROM " + LEGACY_TABLE, LocalDateTime.class);
+            YearMonth from = oldest != null ? YearMonth.from(oldest) : now;
+            for (YearMonth m = from; !m.isAfter(now.plusMonths(monthsAhead)); m = m.plusMonths(1)) {
+                jdbc.execute("CREATE TABLE IF NOT EXISTS " + partitionName(m) + " PARTITION OF device_logs " + bounds(m));
+            }
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF device_logs DEFAULT");
+            int copied = jdbc.update("INSERT INTO device_logs (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + LEGACY_TABLE);
+            jdbc.execute("DROP TABLE " + LEGACY_TABLE);
+            return (long) copied;
+        });
+        log.info("device_logs converted to monthly partitions ({} row(s) copied)", rows);
+    }
+
+    /**
+     * Each month is built as a standalone table and then attached: ATTACH takes a weaker lock
+     * on device_logs than CREATE TABLE ... PARTITION OF, so concurrent inserts keep flowing.
+     * Rows for the month already sitting in DEFAULT are moved across first, since ATTACH
+     * refuses a range DEFAULT still holds.
+     */
+    private void createPartitions(YearMonth from, YearMonth to) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF device_logs DEFAULT");
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            if (!relationExists(partitionName(m))) {
+                createPartition(m);
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        tx.executeWithoutResult(status -> {
+            jdbc.execute("CREATE TABLE " + name + " (LIKE device_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbc.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                    " WHERE created_at >= ? AND created_at < ? RETURNING " + COLUMNS + ")" +
+                    " INSERT INTO " + name + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                    Timestamp.valueOf(lowerBound(month)), Timestamp.valueOf(upperBound(month)));
+            jdbc.execute("ALTER TABLE device_logs ATTACH PARTITION " + name + " " + bounds(month));
+            if (moved > 0) {
+                log.warn("Moved {} device_logs row(s) for {} out of the DEFAULT partition", moved, month);
+            }
+        });
+        log.info("Created device_logs partition {}", name);
+    }
+
+    // --- Retention ----------------------------------------------------------------------
+
+    private void retireBefore(YearMonth cutoff) throws IOException {
+        List<String> attached = jdbc.queryForList("SELECT c.relname::text FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'device_logs'::regclass", String.class);
+        List<String> candidates = jdbc.queryForList("SELECT c.relname::text FROM pg_class c " +
+                "WHERE c.relkind = 'r' AND c.relname ~ '^device_logs_p[0-9]{6}$' " +
+                "AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'device_logs'::regclass)", String.class);
+
+        for (String name : retirable(candidates, cutoff)) {
+            if (attached.contains(name)) {
+                jdbc.execute("ALTER TABLE device_logs DETACH PARTITION " + name);
+            }
+            long rows = archive(name);
+            jdbc.execute("DROP TABLE " + name);
+            log.info("Retired device_logs partition {} ({} row(s) archived)", name, rows);
+        }
+    }
+
+    /** Streams a detached partition to gzipped NDJSON, written to a temp file and then renamed. */
+    private long archive(String partition) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".ndjson.gz");
+        Path temp = archiveDir.resolve(partition + ".ndjson.gz.tmp");
+        long[] rows = {0};
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             GZIPOutputStream gzip = new GZIPOutputStream(file, BUFFER_SIZE);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+             JsonGenerator json = jsonWriter.createGenerator(writer)) {
+            // PostgreSQL only honours the fetch size inside a transaction
+            tx.executeWithoutResult(status -> jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT " + COLUMNS + " FROM " + partition + " ORDER BY created_at, id");
+                ps.setFetchSize(ARCHIVE_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                ArchivedLog row = new ArchivedLog(DeviceLogResponse.of(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("device_id", UUID.class),
+                        rs.getString("action"),
+                        rs.getString("description"),
+                        rs.getObject("created_at", LocalDateTime.class)),
+                        rs.getObject("device_ref", UUID.class));
+                try {
+                    jsonWriter.writeValue(json, row);
+                    json.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+            json.flush();
+            writer.flush();
+            gzip.finish();
+            file.getFD().sync();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows[0];
+    }
+
+    // --- Helpers ------------------------------------------------------------------------
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    private boolean relationExists(String name) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("device_logs_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher m = PARTITION_NAME.matcher(partitionName);
+        if (!m.matches()) {
+            return Optional.empty();
+        }
+        int month = Integer.parseInt(m.group(2));
+        return month >= 1 && month <= 12
+                ? Optional.of(YearMonth.of(Integer.parseInt(m.group(1)), month))
+                : Optional.empty();
+    }
+
+    /** Month partitions that ended before {@code cutoff} starts, oldest first. */
+    static List<String> retirable(Collection<String> partitionNames, YearMonth cutoff) {
+        List<String> out = new ArrayList<>();
+        for (String name : partitionNames) {
+            monthOf(name).filter(m -> m.isBefore(cutoff)).ifPresent(m -> out.add(name));
+        }
+        out.sort(null);
+        return out;
+    }
+
+    static LocalDateTime lowerBound(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    static LocalDateTime upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    static String bounds(YearMonth month) {
+        return "FOR VALUES FROM ('" + lowerBound(month) + "') TO ('" + upperBound(month) + "')";
+    }
+
+    /**
+     * One NDJSON line of an archive: the entry as the API returns it, plus {@code deviceRef}.
+     * By the time a partition is archived, deleting a device has nulled {@code deviceId} on its
+     * rows; device_ref is the only record of which device they belonged to.
+     */
+    static final class ArchivedLog {
+        private final DeviceLogResponse entry;
+        private final UUID deviceRef;
+
+        ArchivedLog(DeviceLogResponse entry, UUID deviceRef) {
+            this.entry     = entry;
+            this.deviceRef = deviceRef;
+        }
+
+        @JsonUnwrapped
+        public DeviceLogResponse getEntry() { return entry; }
+        public UUID getDeviceRef()          { return deviceRef; }
+    }
+}
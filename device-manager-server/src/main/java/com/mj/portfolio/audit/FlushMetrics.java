@@ -0,0 +1,34 @@
+package com.mj.portfolio.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Flush counters shared by the writer implementations. */
+class FlushMetrics {
+
+    final LongAdder written = new LongAdder();
+    final LongAdder failed  = new LongAdder();
+    private final LongAdder flushes    = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    void recordFlush(int entries, long nanos) {
+        written.add(entries);
+        flushes.increment();
+        flushNanos.add(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long flushes() {
+        return flushes.sum();
+    }
+
+    double meanFlushMillis() {
+        long n = flushes.sum();
+        return n == 0 ? 0 : flushNanos.sum() / (double) n / 1_000_000;
+    }
+
+    double maxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+}
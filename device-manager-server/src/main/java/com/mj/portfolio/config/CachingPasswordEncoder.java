@@ -0,0 +1,108 @@
+package com.mj.portfolio.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers successful password checks for a short time, so a client sending the same
+ * Basic credentials on every request pays for one BCrypt verification per {@code ttl}
+ * instead of one per request.
+ *
+ * Entries are keyed by an HMAC of (stored hash, presented password) under a key generated
+ * at startup: the raw password is never kept, and a changed password has a new stored hash,
+ * so its old entries can no longer match. Failed checks are not cached — every wrong guess
+ * still costs a full BCrypt round.
+ *
+ * {@code maxSize=0} disables the cache.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final SecretKeySpec key;
+    private final LinkedHashMap<String, Long> verified;
+
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, int maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.maxSize  = Math.max(0, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > CachingPasswordEncoder.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (maxSize == 0 || rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String cacheKey = cacheKey(rawPassword, encodedPassword);
+        long now = System.nanoTime();
+        synchronized (verified) {
+            Long verifiedAt = verified.get(cacheKey);
+            if (verifiedAt != null) {
+                if (now - verifiedAt < ttlNanos) {
+                    hits.increment();
+                    return true;
+                }
+                verified.remove(cacheKey);
+            }
+        }
+        misses.increment();
+        if (!delegate.matches(rawPassword, encodedPassword)) {
+            return false;
+        }
+        synchronized (verified) {
+            verified.put(cacheKey, now);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public long getHits()   { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
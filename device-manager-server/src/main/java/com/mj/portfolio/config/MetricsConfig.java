@@ -0,0 +1,139 @@
+package com.mj.portfolio.config;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.AuditStatsResponse;
+import com.mj.portfolio.service.DeviceResponseCache;
+import com.mj.portfolio.service.HeartbeatService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the in-process counters that already back {@code /api/v1/stats/audit} and
+ * {@code /api/v1/stats/cache} as Micrometer meters. Nothing is counted twice: every meter
+ * reads the existing counters when it is scraped.
+ *
+ * Request, repository and connection-pool timers come from Spring Boot's own instrumentation
+ * ({@code http.server.requests}, {@code spring.data.repository.invocations},
+ * {@code hikaricp.*}); see {@code management.metrics} in application.yml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Same names and tags as Micrometer's cache binders, so stock cache dashboards work
+    @Bean
+    public MeterBinder deviceCacheMetrics(DeviceResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().getHits())
+                    .tags("cache", "device", "result", "hit")
+                    .description("GET /api/v1/devices/{id} lookups served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().getMisses())
+                    .tags("cache", "device", "result", "miss")
+                    .description("GET /api/v1/devices/{id} lookups that went to the database")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, c -> c.stats().getEvictions())
+                    .tag("cache", "device")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, c -> c.stats().getSize())
+                    .tag("cache", "device")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authCacheMetrics(PasswordEncoder encoder) {
+        return registry -> {
+            if (!(encoder instanceof CachingPasswordEncoder caching)) {
+                return;
+            }
+            FunctionCounter.builder("cache.gets", caching, CachingPasswordEncoder::getHits)
+                    .tags("cache", "auth", "result", "hit")
+                    .description("Basic-auth checks answered without BCrypt")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", caching, CachingPasswordEncoder::getMisses)
+                    .tags("cache", "auth", "result", "miss")
+                    .description("Basic-auth checks that ran BCrypt")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder auditLogMetrics(AuditLogWriter writer) {
+        return registry -> {
+            String mode = writer.stats().getMode();
+            auditCounter(registry, mode, writer, "audit.log.written", AuditStatsResponse::getWritten,
+                    "Entries inserted into device_logs");
+            auditCounter(registry, mode, writer, "audit.log.dropped", AuditStatsResponse::getDropped,
+                    "Entries dropped because the queue was full");
+            auditCounter(registry, mode, writer, "audit.log.overflowed", AuditStatsResponse::getOverflowed,
+                    "Entries written on the caller's thread because the queue was full");
+            auditCounter(registry, mode, writer, "audit.log.failed", AuditStatsResponse::getFailed,
+                    "Entries lost to failed flushes");
+            FunctionTimer.builder("audit.log.flushes", writer,
+                            w -> w.stats().getFlushes(),
+                            w -> {
+                                AuditStatsResponse stats = w.stats();
+                                return stats.getMeanFlushMillis() * stats.getFlushes();
+                            },
+                            TimeUnit.MILLISECONDS)
+                    .tag("mode", mode)
+                    .description("Multi-row INSERTs into device_logs")
+                    .register(registry);
+            Gauge.builder("audit.log.flush.max", writer, w -> w.stats().getMaxFlushMillis())
+                    .tag("mode", mode)
+                    .baseUnit("milliseconds")
+                    .description("Slowest flush since startup")
+                    .register(registry);
+            Gauge.builder("audit.log.queue.depth", writer, w -> w.stats().getQueueDepth())
+                    .tag("mode", mode)
+                    .register(registry);
+            Gauge.builder("audit.log.queue.capacity", writer, w -> w.stats().getQueueCapacity())
+                    .tag("mode", mode)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder heartbeatMetrics(HeartbeatService heartbeats) {
+        return registry -> {
+            FunctionCounter.builder("heartbeats.received", heartbeats, HeartbeatService::getReceived)
+                    .description("Heartbeats posted to /api/v1/heartbeats")
+                    .register(registry);
+            FunctionCounter.builder("heartbeats.rejected", heartbeats, HeartbeatService::getRejected)
+                    .description("Heartbeats without a deviceId, or refused because max-pending devices were queued")
+                    .register(registry);
+            FunctionCounter.builder("heartbeats.flushed", heartbeats, HeartbeatService::getFlushedRows)
+                    .description("last_seen_at updates written, after coalescing per device")
+                    .register(registry);
+            FunctionCounter.builder("heartbeats.transitions", heartbeats, HeartbeatService::getTransitions)
+                    .description("Reported statuses that changed a device's status")
+                    .register(registry);
+            FunctionCounter.builder("heartbeats.flushes", heartbeats, HeartbeatService::getFlushes)
+                    .register(registry);
+            Gauge.builder("heartbeats.pending", heartbeats, HeartbeatService::getPending)
+                    .description("Devices with a heartbeat waiting for the next flush")
+                    .register(registry);
+            Gauge.builder("heartbeats.flush.last", heartbeats, HeartbeatService::getLastFlushMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    private static void auditCounter(MeterRegistry registry, String mode,
+                                     AuditLogWriter writer, String name,
+                                     ToDoubleFunction<AuditStatsResponse> value, String description) {
+        FunctionCounter.builder(name, writer, w -> value.applyAsDouble(w.stats()))
+                .tag("mode", mode)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mj.portfolio.config;
+
+import com.mj.portfolio.replica.ReplicaLagGuard;
+import com.mj.portfolio.replica.ReplicaRoutingDataSource;
+import com.mj.portfolio.replica.ReplicaRoutingDataSource.Route;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read-only transactions on a PostgreSQL hot standby ({@code device-manager.replica}).
+ *
+ * Replaces Spring Boot's single pool with two — the primary from {@code spring.datasource}
+ * as before, the replica from {@code device-manager.replica.datasource} — behind one
+ * {@link ReplicaRoutingDataSource}. Everything that takes the {@code DataSource} (JPA,
+ * {@code JdbcTemplate}, schema initialisation) gets the routing one, so nothing else changes:
+ * services already mark their read paths {@code readOnly}.
+ *
+ * The split is published as {@code datasource.routing} (tags {@code target}, {@code reason})
+ * and the replica's lag as {@code datasource.replica.lag}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "device-manager.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Same binding as Spring Boot's own pool, so the spring.datasource.hikari settings still apply
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(StringUtils.hasText(properties.getName()) ? properties.getName() : "primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("device-manager.replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Qualifier("primaryDataSource") DataSource primary,
+                                           @Qualifier("replicaDataSource") DataSource replica,
+                                           @Value("${device-manager.replica.max-lag:PT5S}") Duration maxLag,
+                                           @Value("${device-manager.replica.poll-interval:PT0.2S}") Duration pollInterval) {
+        return new ReplicaLagGuard(new JdbcTemplate(primary), new JdbcTemplate(replica), maxLag, pollInterval);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             ReplicaLagGuard guard) {
+        return new ReplicaRoutingDataSource(primary, replica, guard);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource routing, ReplicaLagGuard guard) {
+        return registry -> {
+            for (Route route : Route.values()) {
+                FunctionCounter.builder("datasource.routing", routing, r -> r.getRouted(route))
+                        .tags("target", route.target(), "reason", route.reason())
+                        .description("Connections handed out, one per transaction")
+                        .register(registry);
+            }
+            Gauge.builder("datasource.replica.lag", guard, ReplicaLagGuard::lagSeconds)
+                    .baseUnit("seconds")
+                    .description("Age of the newest primary WAL position the replica has replayed")
+                    .register(registry);
+        };
+    }
+}
@@ -1,7 +1,9 @@
 package com.mj.portfolio.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -12,13 +14,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Basic auth is re-checked on every request; the cache spares repeat BCrypt verifications
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${device-manager.auth.cache.max-size:1000}") int cacheSize,
+            @Value("${device-manager.auth.cache.ttl:PT5M}") Duration cacheTtl) {
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), cacheSize, cacheTtl);
     }
 
     @Bean
@@ -44,9 +53,21 @@ public class SecurityConfig {
                     "/v3/api-docs/**",
                     "/health"
                 ).permitAll()
+                // Prometheus scrapes from the host itself; nginx doesn't proxy /actuator
+                .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                    new AuthorizationDecision(isLoopback(context.getRequest().getRemoteAddr())))
                 .anyRequest().authenticated()
             )
             .httpBasic(httpBasic -> {});
         return http.build();
     }
+
+    static boolean isLoopback(String remoteAddr) {
+        try {
+            // remoteAddr is always an IP literal, so this never does a DNS lookup
+            return remoteAddr != null && InetAddress.getByName(remoteAddr).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package com.mj.portfolio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Logs the connection pool, driver and Hibernate batching settings the application actually
+ * started with, so a run can be matched to its configuration (and a forgotten
+ * {@code perf} profile spotted) from the log alone. Settings that undo each other are
+ * reported as warnings.
+ */
+@Component
+public class StartupSettingsReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupSettingsReport.class);
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+
+    public StartupSettingsReport(DataSource dataSource,
+                                 EntityManagerFactory entityManagerFactory,
+                                 @Value("${device-manager.batch.chunk-size:500}") int chunkSize) {
+        this.dataSource           = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize            = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        Map<String, Object> hibernate = entityManagerFactory.getProperties();
+        int batchSize = intSetting(hibernate.get("hibernate.jdbc.batch_size"));
+        log.info("Hibernate: jdbc.batch_size={}, order_inserts={}, order_updates={}, jdbc.fetch_size={}",
+                batchSize, hibernate.getOrDefault("hibernate.order_inserts", false),
+                hibernate.getOrDefault("hibernate.order_updates", false),
+                hibernate.getOrDefault("hibernate.jdbc.fetch_size", "driver default"));
+
+        HikariDataSource pool = hikari();
+        if (pool == null) {
+            log.info("Connection pool: {} (not HikariCP; pool settings not reported)",
+                    dataSource.getClass().getSimpleName());
+        } else {
+            log.info("Connection pool {}: size {}..{}, connection-timeout {} ms, max-lifetime {} ms, "
+                            + "keepalive {} ms, driver properties {}",
+                    pool.getPoolName(), pool.getMinimumIdle(), pool.getMaximumPoolSize(),
+                    pool.getConnectionTimeout(), pool.getMaxLifetime(), pool.getKeepaliveTime(),
+                    pool.getDataSourceProperties());
+        }
+
+        for (String warning : check(batchSize, chunkSize, pool == null ? null : pool.getJdbcUrl(),
+                pool == null ? new Properties() : pool.getDataSourceProperties())) {
+            log.warn(warning);
+        }
+    }
+
+    static List<String> check(int batchSize, int chunkSize, String jdbcUrl, Properties driverProperties) {
+        List<String> warnings = new ArrayList<>();
+        if (batchSize <= 1) {
+            warnings.add("hibernate.jdbc.batch_size is " + batchSize
+                    + ": every INSERT is its own round-trip during bulk ingest");
+        } else if (chunkSize % batchSize != 0) {
+            warnings.add("device-manager.batch.chunk-size (" + chunkSize + ") is not a multiple of "
+                    + "hibernate.jdbc.batch_size (" + batchSize + "): each chunk ends in a short batch");
+        }
+        boolean postgres = jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:");
+        if (postgres && batchSize > 1
+                && !Boolean.parseBoolean(driverProperties.getProperty("reWriteBatchedInserts"))) {
+            warnings.add("reWriteBatchedInserts is off: the PostgreSQL driver sends batched INSERTs "
+                    + "one statement at a time (enable the perf profile)");
+        }
+        return warnings;
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static int intSetting(Object value) {
+        if (value == null) {
+            return 1;
+        }
+        return value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString().trim());
+    }
+}
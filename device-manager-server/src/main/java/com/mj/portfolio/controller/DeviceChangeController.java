@@ -0,0 +1,36 @@
+package com.mj.portfolio.controller;
+
+import com.mj.portfolio.service.DeviceChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "Device Changes", description = "Live feed of committed device changes")
+@RestController
+@RequestMapping("/api/v1/devices/changes")
+public class DeviceChangeController {
+
+    private final DeviceChangeFeed feed;
+
+    public DeviceChangeController(DeviceChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    @Operation(summary = "Stream device changes",
+               description = "Server-Sent Events: CREATED / UPDATED / DELETED per change. Reconnect with Last-Event-ID " +
+                             "to resume; a 'reset' event means the gap is too old, or a bulk status change happened, " +
+                             "and the list must be reloaded")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Last event id seen (sent automatically by EventSource on reconnect)")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response) {
+        // Stops nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return feed.subscribe(lastEventId);
+    }
+}
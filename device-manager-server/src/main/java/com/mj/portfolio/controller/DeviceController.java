@@ -1,21 +1,49 @@
 package com.mj.portfolio.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mj.portfolio.dto.BatchResponse;
+import com.mj.portfolio.dto.BulkStatusRequest;
+import com.mj.portfolio.dto.BulkStatusResponse;
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceDeltaResponse;
 import com.mj.portfolio.dto.DeviceRequest;
 import com.mj.portfolio.dto.DeviceResponse;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.exception.DeviceVersionMismatchException;
+import com.mj.portfolio.exception.InvalidListModeException;
+import com.mj.portfolio.service.DeviceBatchService;
+import com.mj.portfolio.service.DeviceBulkStatusService;
+import com.mj.portfolio.service.DeviceExportService;
 import com.mj.portfolio.service.DeviceService;
+import com.mj.portfolio.service.DeviceSyncService;
+import com.mj.portfolio.service.DeviceVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -24,26 +52,119 @@ import java.util.UUID;
 @RequestMapping("/api/v1/devices")
 public class DeviceController {
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final DeviceService service;
+    private final DeviceBatchService batchService;
+    private final DeviceBulkStatusService bulkStatusService;
+    private final DeviceExportService exportService;
+    private final DeviceSyncService syncService;
+    private final DeviceVersion version;
+    private final ObjectMapper objectMapper;
 
-    public DeviceController(DeviceService service) {
-        this.service = service;
+    public DeviceController(DeviceService service,
+                            DeviceBatchService batchService,
+                            DeviceBulkStatusService bulkStatusService,
+                            DeviceExportService exportService,
+                            DeviceSyncService syncService,
+                            DeviceVersion version,
+                            ObjectMapper objectMapper) {
+        this.service           = service;
+        this.batchService      = batchService;
+        this.bulkStatusService = bulkStatusService;
+        this.exportService     = exportService;
+        this.syncService       = syncService;
+        this.version           = version;
+        this.objectMapper      = objectMapper;
     }
 
-    @Operation(summary = "List devices", description = "Paginated list with optional filters by status, type, or search query")
+    @Operation(summary = "List devices",
+               description = "Paginated list with optional filters by status, type, or search query. Carries an ETag; " +
+                             "send it back in If-None-Match to get 304 Not Modified, without the query running, " +
+                             "while no device has changed")
     @GetMapping
-    public Page<DeviceResponse> list(
+    public ResponseEntity<Page<DeviceResponse>> list(
             @Parameter(description = "Filter by device status") @RequestParam(required = false) DeviceStatus status,
             @Parameter(description = "Filter by device type") @RequestParam(required = false) DeviceType type,
             @Parameter(description = "Search by name (case-insensitive)") @RequestParam(required = false) String q,
-            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
-        return service.findAll(status, type, q, pageable);
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        // Taken before the query (see DeviceVersion); null when list ETags are disabled
+        String tag = version.tag();
+        if (tag == null) {
+            return ResponseEntity.ok(service.findAll(status, type, q, pageable));
+        }
+        // Weak, because Tomcat only gzips responses with weak validators: one tag stands for
+        // both encodings of the page
+        String etag = "W/\"" + tag + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(service.findAll(status, type, q, pageable));
+    }
+
+    @Operation(summary = "List devices (cursor mode)",
+               description = "Keyset pagination ordered by name, id. Send an empty 'after' for the first window, " +
+                             "then the returned nextCursor. Skips the total count, so deep pages cost the same as the first")
+    @GetMapping(params = "after")
+    public CursorPageResponse<DeviceResponse> listAfter(
+            @Parameter(description = "Filter by device status") @RequestParam(required = false) DeviceStatus status,
+            @Parameter(description = "Filter by device type") @RequestParam(required = false) DeviceType type,
+            @Parameter(description = "Search by name, location or IP (case-insensitive)") @RequestParam(required = false) String q,
+            @Parameter(description = "Cursor from the previous window; empty for the first") @RequestParam(required = false) String after,
+            @Parameter(description = "Window size (max 1000)") @RequestParam(defaultValue = "20") int size) {
+        return service.findAfter(status, type, q, after, size);
+    }
+
+    @Operation(summary = "List devices changed since a watermark (delta sync)",
+               description = "Devices created or updated at or after updatedSince, oldest change first, plus the ids of " +
+                             "devices deleted since. Send the returned watermark (and watermarkId) back on the next call; " +
+                             "while hasMore is true, call again straight away. resync means deleted may be incomplete " +
+                             "(the watermark is older than the kept audit trail): keep only the devices from this pass")
+    @GetMapping(params = "updatedSince")
+    public DeviceDeltaResponse listChanges(
+            @Parameter(description = "Watermark from the previous response (ISO-8601); the epoch for a full load")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @Parameter(description = "watermarkId from the previous response, if set") @RequestParam(required = false) UUID afterId,
+            @Parameter(description = "Window size (max 5000)") @RequestParam(defaultValue = "1000") int size) {
+        return syncService.changesSince(updatedSince, afterId, size);
+    }
+
+    // Both list modes at once would otherwise match the two mappings above equally (a 500);
+    // naming both params makes this one more specific than either
+    @Operation(hidden = true)
+    @GetMapping(params = {"after", "updatedSince"})
+    public void listAfterAndChanges() {
+        throw new InvalidListModeException("'after' (cursor mode) and 'updatedSince' (delta sync) can't be combined");
+    }
+
+    @Operation(summary = "Export devices",
+               description = "Streams every matching device as CSV or NDJSON, ordered by name. " +
+                             "Rows are written as they are read, so the export is not capped by page size")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Filter by device status") @RequestParam(required = false) DeviceStatus status,
+            @Parameter(description = "Filter by device type") @RequestParam(required = false) DeviceType type,
+            @Parameter(description = "Search by name, location or IP (case-insensitive)") @RequestParam(required = false) String q,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        DeviceExportService.Format f = DeviceExportService.Format.parse(format);
+        // Runs on an async request thread after the headers are sent; the service opens its own transaction
+        StreamingResponseBody body = out -> exportService.export(status, type, q, f, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(f.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("devices." + f.getExtension()).build().toString())
+                .body(body);
     }
 
-    @Operation(summary = "Get device by ID")
+    @Operation(summary = "Get device by ID",
+               description = "Carries an ETag; send it back in If-None-Match to get 304 Not Modified while the device is unchanged")
     @GetMapping("/{id}")
-    public DeviceResponse get(@PathVariable UUID id) {
-        return service.findById(id);
+    public ResponseEntity<DeviceResponse> get(@PathVariable UUID id) {
+        // Spring answers 304 itself when the ETag matches the request's If-None-Match
+        DeviceResponse device = service.findById(id);
+        return ResponseEntity.ok().eTag(etagOf(device)).body(device);
     }
 
     @Operation(summary = "Create a new device")
@@ -52,25 +173,98 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(req));
     }
 
-    @Operation(summary = "Update an existing device")
+    @Operation(summary = "Create devices in bulk",
+               description = "Accepts a JSON array of devices. Invalid items are rejected individually; the rest are written in batches")
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResponse createBatch(@RequestBody List<DeviceRequest> requests) {
+        return batchService.createAll(requests.iterator());
+    }
+
+    @Operation(summary = "Create devices in bulk from NDJSON",
+               description = "Streams one JSON device per line; the body is parsed incrementally, never buffered whole")
+    @PostMapping(path = "/batch", consumes = APPLICATION_NDJSON)
+    public BatchResponse createBatchNdjson(HttpServletRequest request) throws IOException {
+        try (MappingIterator<DeviceRequest> it =
+                     objectMapper.readerFor(DeviceRequest.class).readValues(request.getInputStream())) {
+            return batchService.createAll(it);
+        } catch (JsonProcessingException ex) {
+            throw unreadable(ex, request);
+        } catch (RuntimeException ex) {
+            // MappingIterator wraps parse errors in unchecked exceptions
+            if (ex.getCause() instanceof JsonProcessingException) {
+                throw unreadable(ex, request);
+            }
+            throw ex;
+        }
+    }
+
+    @Operation(summary = "Update an existing device",
+               description = "Send the device's ETag in If-Match to update only while it is unchanged; " +
+                             "412 Precondition Failed if it has changed since")
     @PutMapping("/{id}")
-    public DeviceResponse update(@PathVariable UUID id,
-                                 @Valid @RequestBody DeviceRequest req) {
-        return service.update(id, req);
+    public ResponseEntity<DeviceResponse> update(@PathVariable UUID id,
+                                                 @Valid @RequestBody DeviceRequest req,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DeviceResponse device = service.update(id, req, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(etagOf(device)).body(device);
     }
 
-    @Operation(summary = "Update device status", description = "Partial update: change only the status field")
+    @Operation(summary = "Update device status",
+               description = "Partial update: change only the status field. Honours If-Match as PUT does")
     @PatchMapping("/{id}/status")
-    public DeviceResponse updateStatus(@PathVariable UUID id,
-                                       @RequestBody Map<String, String> body) {
+    public ResponseEntity<DeviceResponse> updateStatus(@PathVariable UUID id,
+                                                       @RequestBody Map<String, String> body,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         DeviceStatus newStatus = DeviceStatus.valueOf(body.get("status").toUpperCase());
-        return service.updateStatus(id, newStatus);
+        DeviceResponse device = service.updateStatus(id, newStatus, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(etagOf(device)).body(device);
+    }
+
+    @Operation(summary = "Update the status of every device matching a filter",
+               description = "One set-based UPDATE plus one INSERT of STATUS_CHANGED logs, however many devices " +
+                             "match. Devices already in the new status are skipped. The filter must name at least " +
+                             "one criterion; returnIds=true lists the changed devices")
+    @PatchMapping("/status")
+    public BulkStatusResponse updateStatusWhere(@Valid @RequestBody BulkStatusRequest req,
+                                                @RequestParam(defaultValue = "false") boolean returnIds) {
+        return bulkStatusService.updateStatus(req.getStatus(), req.getFilter(), returnIds);
     }
 
-    @Operation(summary = "Delete a device")
+    @Operation(summary = "Delete a device", description = "Honours If-Match as PUT does")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable UUID id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.delete(id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    /** Strong ETag: the device's version, which every write increments. */
+    private static String etagOf(DeviceResponse device) {
+        return device.getVersion() != null ? "\"" + device.getVersion() + "\"" : null;
+    }
+
+    /**
+     * The version an If-Match header requires, or null for none (absent, or {@code *}). Only a
+     * single strong ETag of ours can match; anything else — a weak or foreign tag, a list — is
+     * a precondition that can never hold, so it fails with 412 as a stale version does.
+     */
+    private static Long expectedVersion(UUID id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Not one of ours
+            }
+        }
+        throw new DeviceVersionMismatchException(id);
+    }
+
+    private static HttpMessageNotReadableException unreadable(Exception cause, HttpServletRequest request) {
+        return new HttpMessageNotReadableException(
+                "Malformed NDJSON body", cause, new ServletServerHttpRequest(request));
+    }
 }
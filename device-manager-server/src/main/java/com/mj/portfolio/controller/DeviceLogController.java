@@ -1,32 +1,52 @@
 package com.mj.portfolio.controller;
 
+import com.mj.portfolio.dto.CursorPageResponse;
 import com.mj.portfolio.dto.DeviceLogResponse;
-import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.service.DeviceLogService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Tag(name = "Device Logs", description = "Audit trail for device changes")
 @RestController
 @RequestMapping("/api/v1/devices/{id}/logs")
 public class DeviceLogController {
 
-    private final DeviceLogRepository logRepo;
+    // The plain list form returns at most this many entries; page with 'after' for more
+    static final int LIST_LIMIT = 1000;
 
-    public DeviceLogController(DeviceLogRepository logRepo) {
-        this.logRepo = logRepo;
+    private final DeviceLogService logService;
+
+    public DeviceLogController(DeviceLogService logService) {
+        this.logService = logService;
     }
 
-    @Operation(summary = "Get device logs", description = "Returns change history for a specific device, newest first")
+    @Operation(summary = "Get device logs",
+               description = "Returns change history for a specific device, newest first (at most 1000 entries)")
     @GetMapping
     public List<DeviceLogResponse> getLogs(@PathVariable UUID id) {
-        return logRepo.findByDeviceIdOrderByCreatedAtDesc(id)
-                .stream()
-                .map(DeviceLogResponse::from)
-                .collect(Collectors.toList());
+        return logService.findLogs(id, null, null, null, null, LIST_LIMIT).getContent();
+    }
+
+    @Operation(summary = "Get device logs (cursor mode)",
+               description = "Keyset pagination over (createdAt, id), newest first. Send an empty 'after' for " +
+                             "the first window, then the returned nextCursor")
+    @GetMapping(params = "after")
+    public CursorPageResponse<DeviceLogResponse> getLogsAfter(
+            @PathVariable UUID id,
+            @Parameter(description = "Only entries at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "Only entries before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @Parameter(description = "Only this action, e.g. STATUS_CHANGED") @RequestParam(required = false) String action,
+            @Parameter(description = "Cursor from the previous window; empty for the first") @RequestParam(required = false) String after,
+            @Parameter(description = "Window size (max 1000)") @RequestParam(defaultValue = "50") int size) {
+        return logService.findLogs(id, since, until, action, after, size);
     }
 }
@@ -0,0 +1,36 @@
+package com.mj.portfolio.controller;
+
+import com.mj.portfolio.dto.HeartbeatRequest;
+import com.mj.portfolio.dto.HeartbeatResponse;
+import com.mj.portfolio.service.HeartbeatService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Heartbeats", description = "Device liveness reports")
+@RestController
+@RequestMapping("/api/v1/heartbeats")
+public class HeartbeatController {
+
+    private final HeartbeatService service;
+
+    public HeartbeatController(HeartbeatService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Report device heartbeats",
+               description = "Accepts a JSON array of (deviceId, ts, status). Reports are coalesced in memory and " +
+                             "written about once per second: last_seen_at for every device, and a STATUS_CHANGED " +
+                             "log only when a reported status differs from the stored one")
+    @PostMapping
+    public ResponseEntity<HeartbeatResponse> report(@RequestBody List<HeartbeatRequest> heartbeats) {
+        int accepted = service.record(heartbeats);
+        return ResponseEntity.accepted().body(new HeartbeatResponse(heartbeats.size(), accepted));
+    }
+}
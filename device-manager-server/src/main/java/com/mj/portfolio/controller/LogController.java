@@ -0,0 +1,44 @@
+package com.mj.portfolio.controller;
+
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.service.DeviceLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Tag(name = "Device Logs", description = "Audit trail for device changes")
+@RestController
+@RequestMapping("/api/v1/logs")
+public class LogController {
+
+    private final DeviceLogService logService;
+
+    public LogController(DeviceLogService logService) {
+        this.logService = logService;
+    }
+
+    @Operation(summary = "Audit log feed",
+               description = "Log entries across all devices, newest first, keyset-paginated over (createdAt, id). " +
+                             "Follow nextCursor via 'after' until it is null")
+    @GetMapping
+    public CursorPageResponse<DeviceLogResponse> list(
+            @Parameter(description = "Only this device's entries") @RequestParam(required = false) UUID deviceId,
+            @Parameter(description = "Only entries at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "Only entries before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @Parameter(description = "Only this action, e.g. DELETED") @RequestParam(required = false) String action,
+            @Parameter(description = "Cursor from the previous window") @RequestParam(required = false) String after,
+            @Parameter(description = "Window size (max 1000)") @RequestParam(defaultValue = "50") int size) {
+        return logService.findLogs(deviceId, since, until, action, after, size);
+    }
+}
@@ -1,12 +1,19 @@
 package com.mj.portfolio.controller;
 
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.AuditStatsResponse;
+import com.mj.portfolio.dto.CacheStatsResponse;
 import com.mj.portfolio.dto.StatsResponse;
+import com.mj.portfolio.service.DeviceResponseCache;
 import com.mj.portfolio.service.StatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Statistics", description = "Dashboard statistics and summaries")
 @RestController
@@ -14,14 +21,43 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatsController {
 
     private final StatsService service;
+    private final AuditLogWriter auditLog;
+    private final DeviceResponseCache deviceCache;
 
-    public StatsController(StatsService service) {
-        this.service = service;
+    public StatsController(StatsService service, AuditLogWriter auditLog, DeviceResponseCache deviceCache) {
+        this.service     = service;
+        this.auditLog    = auditLog;
+        this.deviceCache = deviceCache;
     }
 
-    @Operation(summary = "Get dashboard statistics", description = "Returns device counts by type/status and recent activity")
+    @Operation(summary = "Get dashboard statistics",
+               description = "Returns device counts by type/status and recent activity. Carries an ETag; send it back " +
+                             "in If-None-Match to get 304 Not Modified, without the stats being recomputed, while nothing changed")
     @GetMapping
-    public StatsResponse getStats() {
-        return service.getStats();
+    public ResponseEntity<StatsResponse> getStats(WebRequest request) {
+        String tag = service.versionTag();
+        if (tag == null) {
+            return ResponseEntity.ok(service.getStats());
+        }
+        // Weak: the same tag covers the gzip and identity encodings (see DeviceController.list)
+        String etag = "W/\"" + tag + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(service.getStats());
+    }
+
+    @Operation(summary = "Get audit log writer statistics",
+               description = "Queue depth, rows written and flush latency of the device_logs writer")
+    @GetMapping("/audit")
+    public AuditStatsResponse getAuditStats() {
+        return auditLog.stats();
+    }
+
+    @Operation(summary = "Get device cache statistics",
+               description = "Size, hits, misses and evictions of the GET /api/v1/devices/{id} cache")
+    @GetMapping("/cache")
+    public CacheStatsResponse getCacheStats() {
+        return deviceCache.stats();
     }
 }
@@ -0,0 +1,56 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Audit log pipeline counters since startup")
+public class AuditStatsResponse {
+
+    @Schema(description = "Active writer mode", example = "TRANSACTIONAL")
+    private String mode;
+    @Schema(description = "Entries waiting in the async queue (always 0 in transactional mode)", example = "0")
+    private int queueDepth;
+    @Schema(description = "Capacity of the async queue (0 in transactional mode)", example = "10000")
+    private int queueCapacity;
+    @Schema(description = "Entries inserted into device_logs", example = "1200")
+    private long written;
+    @Schema(description = "Entries dropped because the queue was full (overflow=drop only)", example = "0")
+    private long dropped;
+    @Schema(description = "Entries written on the caller's thread because the queue was full", example = "0")
+    private long overflowed;
+    @Schema(description = "Entries lost to failed flushes", example = "0")
+    private long failed;
+    @Schema(description = "Multi-row INSERTs executed", example = "40")
+    private long flushes;
+    @Schema(description = "Mean flush latency in milliseconds", example = "1.8")
+    private double meanFlushMillis;
+    @Schema(description = "Slowest flush in milliseconds", example = "12.4")
+    private double maxFlushMillis;
+
+    public AuditStatsResponse() {}
+
+    public AuditStatsResponse(String mode, int queueDepth, int queueCapacity, long written, long dropped,
+                              long overflowed, long failed, long flushes,
+                              double meanFlushMillis, double maxFlushMillis) {
+        this.mode            = mode;
+        this.queueDepth      = queueDepth;
+        this.queueCapacity   = queueCapacity;
+        this.written         = written;
+        this.dropped         = dropped;
+        this.overflowed      = overflowed;
+        this.failed          = failed;
+        this.flushes         = flushes;
+        this.meanFlushMillis = meanFlushMillis;
+        this.maxFlushMillis  = maxFlushMillis;
+    }
+
+    public String getMode()             { return mode; }
+    public int getQueueDepth()          { return queueDepth; }
+    public int getQueueCapacity()       { return queueCapacity; }
+    public long getWritten()            { return written; }
+    public long getDropped()            { return dropped; }
+    public long getOverflowed()         { return overflowed; }
+    public long getFailed()             { return failed; }
+    public long getFlushes()            { return flushes; }
+    public double getMeanFlushMillis()  { return meanFlushMillis; }
+    public double getMaxFlushMillis()   { return maxFlushMillis; }
+}
@@ -0,0 +1,41 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Outcome of a single item in a batch request")
+public class BatchItemResult {
+
+    public enum Outcome { CREATED, REJECTED }
+
+    @Schema(description = "Zero-based position of the item in the submitted batch", example = "0")
+    private int index;
+    @Schema(description = "Whether the item was written or rejected", example = "CREATED")
+    private Outcome outcome;
+    @Schema(description = "ID of the created device (null when rejected)")
+    private UUID id;
+    @Schema(description = "Reason the item was rejected (null when created)", example = "name: Name is required")
+    private String error;
+
+    public static BatchItemResult created(int index, UUID id) {
+        BatchItemResult r = new BatchItemResult();
+        r.index   = index;
+        r.outcome = Outcome.CREATED;
+        r.id      = id;
+        return r;
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        BatchItemResult r = new BatchItemResult();
+        r.index   = index;
+        r.outcome = Outcome.REJECTED;
+        r.error   = error;
+        return r;
+    }
+
+    public int getIndex()         { return index; }
+    public Outcome getOutcome()   { return outcome; }
+    public UUID getId()           { return id; }
+    public String getError()      { return error; }
+}
@@ -0,0 +1,34 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Summary and per-item results of a batch request")
+public class BatchResponse {
+
+    @Schema(description = "Number of items received", example = "1000")
+    private int received;
+    @Schema(description = "Number of items written", example = "998")
+    private int created;
+    @Schema(description = "Number of items rejected by validation", example = "2")
+    private int rejected;
+    @Schema(description = "Per-item outcome, in submission order")
+    private List<BatchItemResult> items;
+
+    public BatchResponse() {}
+
+    public BatchResponse(List<BatchItemResult> items) {
+        this.items    = items;
+        this.received = items.size();
+        this.created  = (int) items.stream()
+                .filter(i -> i.getOutcome() == BatchItemResult.Outcome.CREATED)
+                .count();
+        this.rejected = received - created;
+    }
+
+    public int getReceived()               { return received; }
+    public int getCreated()                { return created; }
+    public int getRejected()               { return rejected; }
+    public List<BatchItemResult> getItems() { return items; }
+}
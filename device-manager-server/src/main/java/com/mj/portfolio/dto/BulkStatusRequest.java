@@ -0,0 +1,25 @@
+package com.mj.portfolio.dto;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Sets one status on every device matching a filter")
+public class BulkStatusRequest {
+
+    @Schema(description = "New status", example = "MAINTENANCE", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Status is required")
+    private DeviceStatus status;
+
+    @Schema(description = "Devices to change", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Filter is required")
+    @Valid
+    private DeviceFilter filter;
+
+    public DeviceStatus getStatus() { return status; }
+    public void setStatus(DeviceStatus status) { this.status = status; }
+
+    public DeviceFilter getFilter() { return filter; }
+    public void setFilter(DeviceFilter filter) { this.filter = filter; }
+}
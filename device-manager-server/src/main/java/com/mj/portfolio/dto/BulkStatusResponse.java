@@ -0,0 +1,28 @@
+package com.mj.portfolio.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Outcome of a bulk status change")
+public class BulkStatusResponse {
+
+    @Schema(description = "Devices whose status changed; matches already in the new status are not counted",
+            example = "1200")
+    private int updated;
+    @Schema(description = "Ids of the changed devices; only with returnIds=true")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<UUID> ids;
+
+    public BulkStatusResponse() {}
+
+    public BulkStatusResponse(int updated, List<UUID> ids) {
+        this.updated = updated;
+        this.ids     = ids;
+    }
+
+    public int getUpdated()     { return updated; }
+    public List<UUID> getIds()  { return ids; }
+}
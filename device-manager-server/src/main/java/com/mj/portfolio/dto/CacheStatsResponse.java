@@ -0,0 +1,38 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Device cache counters since startup")
+public class CacheStatsResponse {
+
+    @Schema(description = "Entries currently cached", example = "120")
+    private int size;
+    @Schema(description = "Maximum number of entries (0 = cache disabled)", example = "10000")
+    private int maxSize;
+    @Schema(description = "Lookups answered from the cache", example = "9800")
+    private long hits;
+    @Schema(description = "Lookups that went to the database", example = "200")
+    private long misses;
+    @Schema(description = "Entries removed for size or age (not counting invalidations)", example = "3")
+    private long evictions;
+    @Schema(description = "hits / (hits + misses)", example = "0.98")
+    private double hitRatio;
+
+    public CacheStatsResponse() {}
+
+    public CacheStatsResponse(int size, int maxSize, long hits, long misses, long evictions) {
+        this.size      = size;
+        this.maxSize   = maxSize;
+        this.hits      = hits;
+        this.misses    = misses;
+        this.evictions = evictions;
+        this.hitRatio  = hits + misses == 0 ? 0 : hits / (double) (hits + misses);
+    }
+
+    public int getSize()         { return size; }
+    public int getMaxSize()      { return maxSize; }
+    public long getHits()        { return hits; }
+    public long getMisses()      { return misses; }
+    public long getEvictions()   { return evictions; }
+    public double getHitRatio()  { return hitRatio; }
+}
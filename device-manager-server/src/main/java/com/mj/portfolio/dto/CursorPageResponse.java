@@ -0,0 +1,32 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * One window of a keyset-paginated listing. Unlike Spring's {@code Page}, no total
+ * count is computed — clients walk forward with {@link #getNextCursor()} until it is null.
+ */
+@Schema(description = "Cursor-paginated result window")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Items in this window")
+    private List<T> content;
+    @Schema(description = "Requested window size", example = "20")
+    private int size;
+    @Schema(description = "Opaque token for the next window; null on the last one")
+    private String nextCursor;
+
+    public CursorPageResponse() {}
+
+    public CursorPageResponse(List<T> content, int size, String nextCursor) {
+        this.content    = content;
+        this.size       = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent()     { return content; }
+    public int getSize()            { return size; }
+    public String getNextCursor()   { return nextCursor; }
+}
@@ -0,0 +1,38 @@
+package com.mj.portfolio.dto;
+
+import com.mj.portfolio.event.DeviceChangedEvent.ChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "One entry of the device change feed")
+public class DeviceChangeResponse {
+
+    @Schema(description = "Feed position; resend as Last-Event-ID to resume after it", example = "lx3k9p2-1042")
+    private String eventId;
+    @Schema(description = "Kind of change", example = "UPDATED")
+    private ChangeType type;
+    @Schema(description = "Affected device ID")
+    private UUID deviceId;
+    @Schema(description = "Device state after the change; last known state for DELETED")
+    private DeviceResponse device;
+    @Schema(description = "When the change was committed")
+    private LocalDateTime committedAt;
+
+    public DeviceChangeResponse() {}
+
+    public DeviceChangeResponse(String eventId, ChangeType type, DeviceResponse device, LocalDateTime committedAt) {
+        this.eventId     = eventId;
+        this.type        = type;
+        this.deviceId    = device.getId();
+        this.device      = device;
+        this.committedAt = committedAt;
+    }
+
+    public String getEventId()            { return eventId; }
+    public ChangeType getType()           { return type; }
+    public UUID getDeviceId()             { return deviceId; }
+    public DeviceResponse getDevice()     { return device; }
+    public LocalDateTime getCommittedAt() { return committedAt; }
+}
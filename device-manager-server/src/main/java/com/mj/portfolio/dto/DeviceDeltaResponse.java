@@ -0,0 +1,51 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Devices changed since a client's watermark, plus tombstones for the ones deleted since.
+ * Clients apply both, then send {@link #getWatermark()} (and {@link #getWatermarkId()} when
+ * set) back as updatedSince/afterId; while {@link #isHasMore()} is true they ask again at once.
+ * When {@link #isResync()} is set, {@code deleted} may be incomplete: the client keeps only the
+ * devices returned by this pass (every window up to hasMore=false) and drops the rest.
+ */
+@Schema(description = "Changes since a watermark (delta sync)")
+public class DeviceDeltaResponse {
+
+    @Schema(description = "Devices created or updated since the watermark, oldest change first")
+    private List<DeviceResponse> devices;
+    @Schema(description = "Ids of devices deleted since the watermark")
+    private List<UUID> deleted;
+    @Schema(description = "Next updatedSince value", example = "2026-03-01T10:15:30.123456")
+    private LocalDateTime watermark;
+    @Schema(description = "Next afterId value; null once the client has caught up")
+    private UUID watermarkId;
+    @Schema(description = "True when the window was full and more changes are waiting")
+    private boolean hasMore;
+    @Schema(description = "True when updatedSince predates the tombstones the server still has: deleted may be " +
+                          "incomplete, so replace the local set with the devices returned by this pass")
+    private boolean resync;
+
+    public DeviceDeltaResponse() {}
+
+    public DeviceDeltaResponse(List<DeviceResponse> devices, List<UUID> deleted,
+                               LocalDateTime watermark, UUID watermarkId, boolean hasMore, boolean resync) {
+        this.devices     = devices;
+        this.deleted     = deleted;
+        this.watermark   = watermark;
+        this.watermarkId = watermarkId;
+        this.hasMore     = hasMore;
+        this.resync      = resync;
+    }
+
+    public List<DeviceResponse> getDevices()    { return devices; }
+    public List<UUID> getDeleted()              { return deleted; }
+    public LocalDateTime getWatermark()         { return watermark; }
+    public UUID getWatermarkId()                { return watermarkId; }
+    public boolean isHasMore()                  { return hasMore; }
+    public boolean isResync()                   { return resync; }
+}
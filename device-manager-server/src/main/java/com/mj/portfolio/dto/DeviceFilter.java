@@ -0,0 +1,44 @@
+package com.mj.portfolio.dto;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Selects devices for a bulk change. All given criteria must match; at least one is required")
+public class DeviceFilter {
+
+    @Schema(description = "Current status", example = "ACTIVE")
+    private DeviceStatus status;
+    @Schema(description = "Device type", example = "ROUTER")
+    private DeviceType type;
+    @Schema(description = "Exact location", example = "Building A, Floor 3")
+    private String location;
+    @Schema(description = "Search query, as in GET /api/v1/devices?q= (text or network, e.g. 10.20.0.0/16)",
+            example = "10.20.")
+    private String q;
+    @Schema(description = "Explicit device ids")
+    private List<UUID> ids;
+
+    public DeviceStatus getStatus() { return status; }
+    public void setStatus(DeviceStatus status) { this.status = status; }
+
+    public DeviceType getType() { return type; }
+    public void setType(DeviceType type) { this.type = type; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+
+    public List<UUID> getIds() { return ids; }
+    public void setIds(List<UUID> ids) { this.ids = ids; }
+
+    public boolean isEmpty() {
+        return status == null && type == null && (location == null || location.isBlank())
+                && (q == null || q.isBlank()) && ids == null;
+    }
+}
@@ -11,6 +11,8 @@ public class DeviceLogResponse {
 
     @Schema(description = "Log entry ID")
     private UUID id;
+    @Schema(description = "Device the entry belongs to; null once the device has been deleted")
+    private UUID deviceId;
     @Schema(description = "Action performed", example = "CREATED")
     private String action;
     @Schema(description = "Human-readable description of the change")
@@ -21,13 +23,27 @@ public class DeviceLogResponse {
     public static DeviceLogResponse from(DeviceLog log) {
         DeviceLogResponse r = new DeviceLogResponse();
         r.id          = log.getId();
+        // Reading the id of a lazy proxy does not load the device
+        r.deviceId    = log.getDevice() != null ? log.getDevice().getId() : null;
         r.action      = log.getAction();
         r.description = log.getDescription();
         r.createdAt   = log.getCreatedAt();
         return r;
     }
 
+    public static DeviceLogResponse of(UUID id, UUID deviceId, String action, String description,
+                                       LocalDateTime createdAt) {
+        DeviceLogResponse r = new DeviceLogResponse();
+        r.id          = id;
+        r.deviceId    = deviceId;
+        r.action      = action;
+        r.description = description;
+        r.createdAt   = createdAt;
+        return r;
+    }
+
     public UUID getId()              { return id; }
+    public UUID getDeviceId()        { return deviceId; }
     public String getAction()        { return action; }
     public String getDescription()   { return description; }
     public LocalDateTime getCreatedAt() { return createdAt; }
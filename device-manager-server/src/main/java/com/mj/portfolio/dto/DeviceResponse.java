@@ -27,6 +27,8 @@ public class DeviceResponse {
     private LocalDateTime createdAt;
     @Schema(description = "Last update timestamp")
     private LocalDateTime updatedAt;
+    @Schema(description = "Version, incremented on every change; also the device's ETag", example = "3")
+    private Long version;
 
     public static DeviceResponse from(Device d) {
         DeviceResponse r = new DeviceResponse();
@@ -38,6 +40,23 @@ public class DeviceResponse {
         r.location  = d.getLocation();
         r.createdAt = d.getCreatedAt();
         r.updatedAt = d.getUpdatedAt();
+        r.version   = d.getVersion();
+        return r;
+    }
+
+    public static DeviceResponse of(UUID id, String name, DeviceType type, DeviceStatus status,
+                                    String ipAddress, String location,
+                                    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        DeviceResponse r = new DeviceResponse();
+        r.id        = id;
+        r.name      = name;
+        r.type      = type;
+        r.status    = status;
+        r.ipAddress = ipAddress;
+        r.location  = location;
+        r.createdAt = createdAt;
+        r.updatedAt = updatedAt;
+        r.version   = version;
         return r;
     }
 
@@ -49,4 +68,5 @@ public class DeviceResponse {
     public String getLocation()      { return location; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion()         { return version; }
 }
@@ -0,0 +1,31 @@
+package com.mj.portfolio.dto;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "One liveness report from a device")
+public class HeartbeatRequest {
+
+    @Schema(description = "Reporting device", example = "3f1c2a9e-8b4d-4c6e-9f0a-1b2c3d4e5f60")
+    private UUID deviceId;
+
+    @Schema(description = "When the device sent it; defaults to arrival time. Times in the future are clamped to now",
+            example = "2026-03-01T10:15:30")
+    private LocalDateTime ts;
+
+    @Schema(description = "Status the device reports, if any; a change is applied and logged as STATUS_CHANGED",
+            example = "ACTIVE")
+    private DeviceStatus status;
+
+    public UUID getDeviceId() { return deviceId; }
+    public void setDeviceId(UUID deviceId) { this.deviceId = deviceId; }
+
+    public LocalDateTime getTs() { return ts; }
+    public void setTs(LocalDateTime ts) { this.ts = ts; }
+
+    public DeviceStatus getStatus() { return status; }
+    public void setStatus(DeviceStatus status) { this.status = status; }
+}
@@ -0,0 +1,26 @@
+package com.mj.portfolio.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a heartbeat batch. Accepted heartbeats are written asynchronously")
+public class HeartbeatResponse {
+
+    @Schema(description = "Number of heartbeats received", example = "500")
+    private int received;
+    @Schema(description = "Number queued for the next flush", example = "499")
+    private int accepted;
+    @Schema(description = "Number rejected: no deviceId, or too many devices pending", example = "1")
+    private int rejected;
+
+    public HeartbeatResponse() {}
+
+    public HeartbeatResponse(int received, int accepted) {
+        this.received = received;
+        this.accepted = accepted;
+        this.rejected = received - accepted;
+    }
+
+    public int getReceived() { return received; }
+    public int getAccepted() { return accepted; }
+    public int getRejected() { return rejected; }
+}
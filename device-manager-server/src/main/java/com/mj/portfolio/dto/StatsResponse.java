@@ -2,12 +2,15 @@ package com.mj.portfolio.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @Schema(description = "Dashboard statistics overview")
 public class StatsResponse {
 
+    public enum Source { QUERY, COUNTERS }
+
     @Schema(description = "Total number of devices", example = "42")
     private long total;
     @Schema(description = "Device count grouped by type")
@@ -16,21 +19,36 @@ public class StatsResponse {
     private Map<String, Long> byStatus;
     @Schema(description = "Most recent device log entries")
     private List<DeviceLogResponse> recentActivity;
+    @Schema(description = "Where the counts came from: a GROUP BY query or in-memory counters", example = "QUERY")
+    private Source source;
+    @Schema(description = "When the in-memory counters were last reconciled with the database (counters mode only)")
+    private LocalDateTime lastReconciledAt;
+    @Schema(description = "Devices miscounted at the last reconciliation (counters mode only)", example = "0")
+    private Long counterDrift;
 
     public StatsResponse() {}
 
     public StatsResponse(long total,
                          Map<String, Long> byType,
                          Map<String, Long> byStatus,
-                         List<DeviceLogResponse> recentActivity) {
-        this.total          = total;
-        this.byType         = byType;
-        this.byStatus       = byStatus;
-        this.recentActivity = recentActivity;
+                         List<DeviceLogResponse> recentActivity,
+                         Source source,
+                         LocalDateTime lastReconciledAt,
+                         Long counterDrift) {
+        this.total            = total;
+        this.byType           = byType;
+        this.byStatus         = byStatus;
+        this.recentActivity   = recentActivity;
+        this.source           = source;
+        this.lastReconciledAt = lastReconciledAt;
+        this.counterDrift     = counterDrift;
     }
 
     public long getTotal()                           { return total; }
     public Map<String, Long> getByType()             { return byType; }
     public Map<String, Long> getByStatus()           { return byStatus; }
     public List<DeviceLogResponse> getRecentActivity() { return recentActivity; }
+    public Source getSource()                        { return source; }
+    public LocalDateTime getLastReconciledAt()       { return lastReconciledAt; }
+    public Long getCounterDrift()                    { return counterDrift; }
 }
@@ -47,6 +47,16 @@ public class Device {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Written only by HeartbeatService's batched UPDATE, never by Hibernate, so a heartbeat
+    // doesn't move updated_at
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private LocalDateTime lastSeenAt;
+
+    // Incremented on every write (Hibernate for entity saves, the statements in
+    // DeviceMutationsImpl and DeviceBulkStatusService for native ones); null until persisted
+    @Version
+    private Long version;
+
     public Device() {}
 
     public UUID getId() { return id; }
@@ -69,4 +79,6 @@ public class Device {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getLastSeenAt() { return lastSeenAt; }
+    public Long getVersion() { return version; }
 }
@@ -20,6 +20,10 @@ public class DeviceLog {
     @JoinColumn(name = "device_id", nullable = true)
     private Device device;
 
+    // The device id as logged, with no foreign key, so it survives the delete (tombstones)
+    @Column(name = "device_ref", updatable = false)
+    private UUID deviceRef;
+
     @Column(nullable = false, length = 50)
     private String action;
 
@@ -43,6 +47,8 @@ public class DeviceLog {
     public Device getDevice() { return device; }
     public void setDevice(Device device) { this.device = device; }
 
+    public UUID getDeviceRef() { return deviceRef; }
+
     public String getAction() { return action; }
     public void setAction(String action) { this.action = action; }
 
@@ -0,0 +1,61 @@
+package com.mj.portfolio.event;
+
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the service layer once per device mutation, alongside the audit log rows
+ * it writes. Listeners that must only see committed data use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ */
+public class DeviceChangedEvent {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    private final ChangeType changeType;
+    private final DeviceResponse device;
+    private final DeviceType previousType;
+    private final DeviceStatus previousStatus;
+    private final List<DeviceLogResponse> logs;
+
+    /**
+     * @param device         state after the change; for DELETED, the last state before removal
+     * @param previousType   type before an UPDATED change, otherwise null
+     * @param previousStatus status before an UPDATED change, otherwise null
+     * @param logs           audit entries written for this change, in write order
+     */
+    public DeviceChangedEvent(ChangeType changeType, DeviceResponse device,
+                              DeviceType previousType, DeviceStatus previousStatus,
+                              List<DeviceLogResponse> logs) {
+        this.changeType     = changeType;
+        this.device         = device;
+        this.previousType   = previousType;
+        this.previousStatus = previousStatus;
+        this.logs           = List.copyOf(logs);
+    }
+
+    public static DeviceChangedEvent created(DeviceResponse device, List<DeviceLogResponse> logs) {
+        return new DeviceChangedEvent(ChangeType.CREATED, device, null, null, logs);
+    }
+
+    public static DeviceChangedEvent updated(DeviceResponse device, DeviceType previousType,
+                                             DeviceStatus previousStatus, List<DeviceLogResponse> logs) {
+        return new DeviceChangedEvent(ChangeType.UPDATED, device, previousType, previousStatus, logs);
+    }
+
+    public static DeviceChangedEvent deleted(DeviceResponse device, List<DeviceLogResponse> logs) {
+        return new DeviceChangedEvent(ChangeType.DELETED, device, null, null, logs);
+    }
+
+    public ChangeType getChangeType()       { return changeType; }
+    public DeviceResponse getDevice()       { return device; }
+    public UUID getDeviceId()               { return device.getId(); }
+    public DeviceType getPreviousType()     { return previousType; }
+    public DeviceStatus getPreviousStatus() { return previousStatus; }
+    public List<DeviceLogResponse> getLogs() { return logs; }
+}
@@ -0,0 +1,48 @@
+package com.mj.portfolio.event;
+
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published once by a set-based status change, in place of one {@link DeviceChangedEvent} per
+ * device: listeners apply it as a single batch (one cache pass, one version bump, one feed
+ * {@code reset}) however many devices it moved. Listeners that must only see committed data use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ */
+public class DevicesStatusChangedEvent {
+
+    private final DeviceStatus status;
+    private final List<UUID> deviceIds;
+    private final long[][] previousCounts;
+    private final List<DeviceLogResponse> logs;
+
+    /**
+     * @param status         status every listed device now has
+     * @param deviceIds      devices that changed
+     * @param previousCounts number of changed devices per [type ordinal][previous status ordinal]
+     * @param logs           audit entries written for the change, in write order
+     */
+    public DevicesStatusChangedEvent(DeviceStatus status, List<UUID> deviceIds, long[][] previousCounts,
+                                     List<DeviceLogResponse> logs) {
+        this.status         = status;
+        this.deviceIds      = List.copyOf(deviceIds);
+        this.previousCounts = new long[previousCounts.length][];
+        for (int t = 0; t < previousCounts.length; t++) {
+            this.previousCounts[t] = previousCounts[t].clone();
+        }
+        this.logs           = List.copyOf(logs);
+    }
+
+    public DeviceStatus getStatus()           { return status; }
+    public List<UUID> getDeviceIds()          { return deviceIds; }
+    public List<DeviceLogResponse> getLogs()  { return logs; }
+
+    /** How many of the changed devices are of {@code type} and had {@code status} before. */
+    public long previousCount(DeviceType type, DeviceStatus status) {
+        return previousCounts[type.ordinal()][status.ordinal()];
+    }
+}
@@ -0,0 +1,10 @@
+package com.mj.portfolio.exception;
+
+import java.util.UUID;
+
+public class DeviceVersionMismatchException extends RuntimeException {
+
+    public DeviceVersionMismatchException(UUID id) {
+        super("Device " + id + " has changed: If-Match does not match its current version");
+    }
+}
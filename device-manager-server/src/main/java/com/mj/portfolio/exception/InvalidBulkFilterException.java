@@ -0,0 +1,8 @@
+package com.mj.portfolio.exception;
+
+public class InvalidBulkFilterException extends RuntimeException {
+
+    public InvalidBulkFilterException(String message) {
+        super(message);
+    }
+}
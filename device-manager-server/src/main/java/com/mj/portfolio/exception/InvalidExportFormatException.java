@@ -0,0 +1,8 @@
+package com.mj.portfolio.exception;
+
+public class InvalidExportFormatException extends RuntimeException {
+
+    public InvalidExportFormatException(String format) {
+        super("Unsupported export format: " + format + " (expected csv or ndjson)");
+    }
+}
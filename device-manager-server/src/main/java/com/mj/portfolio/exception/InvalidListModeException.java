@@ -0,0 +1,8 @@
+package com.mj.portfolio.exception;
+
+public class InvalidListModeException extends RuntimeException {
+
+    public InvalidListModeException(String message) {
+        super(message);
+    }
+}
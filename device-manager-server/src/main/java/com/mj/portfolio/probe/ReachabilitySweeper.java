@@ -0,0 +1,220 @@
+package com.mj.portfolio.probe;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.probe.TcpReachabilityProber.Outcome;
+import com.mj.portfolio.probe.TcpReachabilityProber.Result;
+import com.mj.portfolio.probe.TcpReachabilityProber.Target;
+import com.mj.portfolio.service.DeviceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives ACTIVE / INACTIVE from whether each device's {@code ip_address} answers
+ * ({@link TcpReachabilityProber}). Every sweep probes all ACTIVE and INACTIVE devices with an
+ * IP literal; MAINTENANCE and DECOMMISSIONED devices are left to their operators.
+ *
+ * A device that answers becomes ACTIVE at once; one that doesn't becomes INACTIVE after
+ * {@code failure-threshold} consecutive failed sweeps, so a single lost SYN doesn't flap it.
+ * Changes go through {@link DeviceService#applyReportedStatuses(Map, Set)} — saved, logged as
+ * STATUS_CHANGED and published only on an actual transition, and never over a status an
+ * operator changed while the sweep ran.
+ *
+ * Sweeps run back to back on one thread, {@code interval} apart (±{@code jitter}) from the end
+ * of one to the start of the next. Off unless {@code device-manager.probe.enabled} is true.
+ */
+@Component
+@ConditionalOnProperty(name = "device-manager.probe.enabled", havingValue = "true")
+public class ReachabilitySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ReachabilitySweeper.class);
+
+    private static final Set<DeviceStatus> PROBED = EnumSet.of(DeviceStatus.ACTIVE, DeviceStatus.INACTIVE);
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final DeviceService deviceService;
+    private final TcpReachabilityProber prober;
+    private final Duration interval;
+    private final double jitter;
+    private final int failureThreshold;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "reachability-prober");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Consecutive failed sweeps per device; only touched by the sweep thread
+    private final Map<UUID, Integer> failures = new HashMap<>();
+
+    private final Timer sweepTimer;
+    private final Map<Outcome, Timer> probeTimers = new EnumMap<>(Outcome.class);
+    private final Counter transitions;
+    private final AtomicInteger lastTargets = new AtomicInteger();
+
+    @Autowired
+    public ReachabilitySweeper(JdbcTemplate jdbc, DeviceService deviceService, MeterRegistry registry,
+                               @Value("${device-manager.probe.ports:22,80,443}") List<Integer> ports,
+                               @Value("${device-manager.probe.connect-timeout:PT2S}") Duration connectTimeout,
+                               @Value("${device-manager.probe.max-in-flight:512}") int maxInFlight,
+                               @Value("${device-manager.probe.per-subnet-rate:20}") double perSubnetRate,
+                               @Value("${device-manager.probe.ipv4-subnet-prefix:24}") int ipv4SubnetPrefix,
+                               @Value("${device-manager.probe.interval:PT5M}") Duration interval,
+                               @Value("${device-manager.probe.jitter:0.1}") double jitter,
+                               @Value("${device-manager.probe.failure-threshold:2}") int failureThreshold) {
+        this(jdbc, deviceService, registry,
+                new TcpReachabilityProber(ports, connectTimeout, maxInFlight, perSubnetRate, ipv4SubnetPrefix),
+                interval, jitter, failureThreshold);
+    }
+
+    ReachabilitySweeper(JdbcTemplate jdbc, DeviceService deviceService, MeterRegistry registry,
+                        TcpReachabilityProber prober, Duration interval, double jitter, int failureThreshold) {
+        this.jdbc             = jdbc;
+        this.deviceService    = deviceService;
+        this.prober           = prober;
+        this.interval         = interval;
+        this.jitter           = Math.min(1, Math.max(0, jitter));
+        this.failureThreshold = Math.max(1, failureThreshold);
+
+        this.sweepTimer = Timer.builder("probe.sweep.duration")
+                .description("Time to probe every ACTIVE and INACTIVE device once")
+                .register(registry);
+        for (Outcome outcome : Outcome.values()) {
+            probeTimers.put(outcome, Timer.builder("probe.latency")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .description("Time from first connect to a device's outcome, across all ports tried")
+                    .register(registry));
+        }
+        this.transitions = Counter.builder("probe.transitions")
+                .description("Status changes made from probe results")
+                .register(registry);
+        registry.gauge("probe.sweep.targets", lastTargets);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // First sweep at a random point of the first tenth: instances started together don't sweep together
+        scheduleNext(ThreadLocalRandom.current().nextLong(Math.max(1, interval.toNanos() / 10)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduleNext(long delayNanos) {
+        scheduler.schedule(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.error("Reachability sweep failed", e);
+            } finally {
+                if (!scheduler.isShutdown()) {
+                    scheduleNext(jittered(interval.toNanos()));
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Probes every device once and applies the resulting transitions; returns how many changed. */
+    int sweep() {
+        List<Target> targets = new ArrayList<>();
+        Map<UUID, DeviceStatus> current = new HashMap<>();
+        int[] skipped = {0};
+        jdbc.query("SELECT id, ip_address, status FROM devices "
+                        + "WHERE ip_address IS NOT NULL AND status IN ('ACTIVE', 'INACTIVE')",
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    InetAddress address = TcpReachabilityProber.parseAddress(rs.getString("ip_address"));
+                    if (address == null) {
+                        skipped[0]++;
+                        return;
+                    }
+                    targets.add(new Target(id, address));
+                    current.put(id, DeviceStatus.valueOf(rs.getString("status")));
+                });
+        lastTargets.set(targets.size());
+
+        Map<UUID, DeviceStatus> changes = new HashMap<>();
+        int[] up = {0};
+        long start = System.nanoTime();
+        try {
+            prober.sweep(targets, result -> {
+                if (result.getOutcome().isUp()) {
+                    up[0]++;
+                }
+                DeviceStatus next = next(result, current.get(result.getTarget().getDeviceId()));
+                if (next != null) {
+                    changes.put(result.getTarget().getDeviceId(), next);
+                }
+            });
+        } catch (IOException e) {
+            // A partial sweep says nothing about the devices it didn't reach; change nothing
+            log.error("Reachability sweep aborted after {} ms", (System.nanoTime() - start) / 1_000_000, e);
+            return 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        // Forget devices that were deleted, parked or readdressed since
+        failures.keySet().retainAll(current.keySet());
+
+        int changed = 0;
+        List<UUID> ids = new ArrayList<>(changes.keySet());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            Map<UUID, DeviceStatus> chunk = new HashMap<>();
+            for (UUID id : ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))) {
+                chunk.put(id, changes.get(id));
+            }
+            changed += deviceService.applyReportedStatuses(chunk, PROBED);
+        }
+        transitions.increment(changed);
+        log.info("Reachability sweep: {} devices in {} ms, {} up, {} down, {} status changes{}",
+                targets.size(), elapsed / 1_000_000, up[0], targets.size() - up[0], changed,
+                skipped[0] > 0 ? ", " + skipped[0] + " skipped (ip_address is not an IP literal)" : "");
+        return changed;
+    }
+
+    private DeviceStatus next(Result result, DeviceStatus status) {
+        probeTimers.get(result.getOutcome()).record(result.getNanos(), TimeUnit.NANOSECONDS);
+        UUID id = result.getTarget().getDeviceId();
+        if (result.getOutcome().isUp()) {
+            failures.remove(id);
+            return status == DeviceStatus.INACTIVE ? DeviceStatus.ACTIVE : null;
+        }
+        int failed = failures.merge(id, 1, Integer::sum);
+        return failed >= failureThreshold && status == DeviceStatus.ACTIVE ? DeviceStatus.INACTIVE : null;
+    }
+
+    private long jittered(long nanos) {
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (nanos * factor);
+    }
+}
@@ -0,0 +1,316 @@
+package com.mj.portfolio.probe;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Checks whether hosts answer on TCP, many at once from a single thread: non-blocking
+ * connects multiplexed on one {@link Selector}.
+ *
+ * A host counts as up when a connect to any of {@code ports} succeeds or is refused — a
+ * refusal is the host's own TCP stack answering, which is what an ICMP echo would have
+ * shown, without the raw socket ICMP needs. Ports are tried in order, the next one only after
+ * the previous timed out. A host whose every port times out, or that the local stack can't
+ * route to, is down.
+ *
+ * Load is bounded two ways: at most {@code maxInFlight} connects are open at any time, and
+ * each subnet (IPv4 /{@code ipv4SubnetPrefix}, IPv6 /64) starts at most
+ * {@code perSubnetRate} probes per second, spaced with random jitter so neighbouring
+ * subnets don't fire in lockstep. Subnets are interleaved, so one large subnet doesn't hold
+ * up the others.
+ *
+ * Not thread-safe; each {@link #sweep} runs on its caller's thread.
+ */
+public class TcpReachabilityProber {
+
+    public enum Outcome {
+        CONNECTED, REFUSED, TIMEOUT, UNREACHABLE;
+
+        public boolean isUp() {
+            return this == CONNECTED || this == REFUSED;
+        }
+    }
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    // Fraction of the per-subnet spacing added or removed at random
+    private static final double JITTER = 0.2;
+
+    private final int[] ports;
+    private final long timeoutNanos;
+    private final int maxInFlight;
+    private final long spacingNanos;
+    private final int ipv4SubnetPrefix;
+
+    public TcpReachabilityProber(List<Integer> ports, Duration connectTimeout, int maxInFlight,
+                                 double perSubnetRate, int ipv4SubnetPrefix) {
+        if (ports.isEmpty()) {
+            throw new IllegalArgumentException("At least one port is required");
+        }
+        this.ports            = ports.stream().mapToInt(Integer::intValue).toArray();
+        this.timeoutNanos     = connectTimeout.toNanos();
+        this.maxInFlight      = Math.max(1, maxInFlight);
+        this.spacingNanos     = perSubnetRate > 0 ? (long) (1_000_000_000L / perSubnetRate) : 0;
+        this.ipv4SubnetPrefix = Math.min(32, Math.max(0, ipv4SubnetPrefix));
+    }
+
+    /**
+     * Parses an IP literal without ever asking DNS; returns null for anything else
+     * (host names included).
+     */
+    public static InetAddress parseAddress(String ip) {
+        if (ip == null || ip.isBlank()) {
+            return null;
+        }
+        String s = ip.trim();
+        try {
+            if (IPV4.matcher(s).matches()) {
+                return InetAddress.getByName(s);
+            }
+            // Brackets force literal parsing, so this never falls back to a DNS lookup
+            return s.indexOf(':') >= 0 ? InetAddress.getByName("[" + s + "]") : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Probes every target once and hands each result to {@code results} as soon as it is
+     * known, in completion order. Returns when all are done.
+     *
+     * @throws IOException if sockets can't be opened at all (e.g. out of file descriptors);
+     *         results already delivered stand, the rest were not probed
+     */
+    public void sweep(Collection<Target> targets, Consumer<Result> results) throws IOException {
+        PriorityQueue<Subnet> due = new PriorityQueue<>(Comparator.comparingLong((Subnet s) -> s.nextAt));
+        long start = System.nanoTime();
+        Map<String, Subnet> subnets = new HashMap<>();
+        for (Target target : targets) {
+            // Each subnet starts at a random point of its first interval
+            subnets.computeIfAbsent(subnetOf(target.address),
+                            k -> new Subnet(start + (long) (spacingNanos * ThreadLocalRandom.current().nextDouble())))
+                    .queue.add(target);
+        }
+        due.addAll(subnets.values());
+
+        ArrayDeque<Attempt> deadlines = new ArrayDeque<>();
+        int inFlight = 0;
+        long now;
+        try (Selector selector = Selector.open()) {
+            try {
+                while (inFlight > 0 || !due.isEmpty()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Probe sweep interrupted");
+                    }
+                    now = System.nanoTime();
+                    while (inFlight < maxInFlight && !due.isEmpty() && due.peek().nextAt <= now) {
+                        Subnet subnet = due.poll();
+                        Attempt attempt = new Attempt(subnet.queue.poll(), now);
+                        inFlight++;
+                        if (connect(selector, attempt, 0, now, deadlines, results)) {
+                            inFlight--;
+                        }
+                        if (!subnet.queue.isEmpty()) {
+                            subnet.nextAt = now + jittered(spacingNanos);
+                            due.add(subnet);
+                        }
+                    }
+
+                    selector.select(waitMillis(inFlight, due, deadlines));
+                    now = System.nanoTime();
+                    for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Attempt attempt = (Attempt) key.attachment();
+                        Outcome outcome;
+                        try {
+                            outcome = attempt.channel.finishConnect() ? Outcome.CONNECTED : null;
+                        } catch (ConnectException e) {
+                            outcome = Outcome.REFUSED;
+                        } catch (IOException e) {
+                            outcome = Outcome.UNREACHABLE;
+                        }
+                        if (outcome != null) {
+                            finish(attempt, outcome, now, results);
+                            inFlight--;
+                        }
+                    }
+                    while (!deadlines.isEmpty() && (deadlines.peek().done || deadlines.peek().deadline <= now)) {
+                        Attempt attempt = deadlines.poll();
+                        if (attempt.done) {
+                            continue;
+                        }
+                        close(attempt);
+                        int next = attempt.portIndex + 1;
+                        if (next < ports.length) {
+                            Attempt retry = new Attempt(attempt.target, attempt.started);
+                            if (!connect(selector, retry, next, now, deadlines, results)) {
+                                continue;
+                            }
+                        } else {
+                            finish(attempt, Outcome.TIMEOUT, now, results);
+                        }
+                        inFlight--;
+                    }
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+            }
+        }
+    }
+
+    /** Starts a connect; returns true if it already finished (result delivered). */
+    private boolean connect(Selector selector, Attempt attempt, int portIndex, long now,
+                            ArrayDeque<Attempt> deadlines, Consumer<Result> results) throws IOException {
+        attempt.portIndex = portIndex;
+        // Failing to open a socket is a local problem, not the host's: abort the sweep
+        SocketChannel channel = SocketChannel.open();
+        attempt.channel = channel;
+        try {
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(attempt.target.address, ports[portIndex]))) {
+                finish(attempt, Outcome.CONNECTED, now, results);
+                return true;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+        } catch (ConnectException e) {
+            finish(attempt, Outcome.REFUSED, now, results);
+            return true;
+        } catch (IOException e) {
+            finish(attempt, Outcome.UNREACHABLE, now, results);
+            return true;
+        }
+        attempt.deadline = now + timeoutNanos;
+        deadlines.add(attempt);
+        return false;
+    }
+
+    private void finish(Attempt attempt, Outcome outcome, long now, Consumer<Result> results) {
+        close(attempt);
+        results.accept(new Result(attempt.target, outcome, ports[attempt.portIndex], now - attempt.started));
+    }
+
+    private static void close(Attempt attempt) {
+        attempt.done = true;
+        try {
+            attempt.channel.close();
+        } catch (IOException ignored) {
+            // Nothing was sent; there is nothing to lose
+        }
+    }
+
+    private long waitMillis(int inFlight, PriorityQueue<Subnet> due, ArrayDeque<Attempt> deadlines) {
+        long now = System.nanoTime();
+        long until = Long.MAX_VALUE;
+        if (!deadlines.isEmpty()) {
+            until = deadlines.peek().deadline;
+        }
+        if (inFlight < maxInFlight && !due.isEmpty()) {
+            until = Math.min(until, due.peek().nextAt);
+        }
+        // select(0) blocks indefinitely; never ask for less than 1 ms
+        return until == Long.MAX_VALUE ? 1000 : Math.max(1, (until - now + 999_999) / 1_000_000);
+    }
+
+    String subnetOf(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        int prefix = address instanceof Inet4Address ? ipv4SubnetPrefix : 64;
+        byte[] network = Arrays.copyOf(bytes, bytes.length);
+        for (int bit = prefix; bit < network.length * 8; bit++) {
+            network[bit / 8] &= (byte) ~(0x80 >>> (bit % 8));
+        }
+        try {
+            return InetAddress.getByAddress(network).getHostAddress() + "/" + prefix;
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long jittered(long spacing) {
+        if (spacing == 0) {
+            return 0;
+        }
+        double factor = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (spacing * factor);
+    }
+
+    public static final class Target {
+        private final UUID deviceId;
+        private final InetAddress address;
+
+        public Target(UUID deviceId, InetAddress address) {
+            this.deviceId = deviceId;
+            this.address  = address;
+        }
+
+        public UUID getDeviceId()       { return deviceId; }
+        public InetAddress getAddress() { return address; }
+    }
+
+    public static final class Result {
+        private final Target target;
+        private final Outcome outcome;
+        private final int port;
+        private final long nanos;
+
+        Result(Target target, Outcome outcome, int port, long nanos) {
+            this.target  = target;
+            this.outcome = outcome;
+            this.port    = port;
+            this.nanos   = nanos;
+        }
+
+        public Target getTarget()   { return target; }
+        public Outcome getOutcome() { return outcome; }
+        /** The last port tried. */
+        public int getPort()        { return port; }
+        /** From the first connect to the outcome, across all ports tried. */
+        public long getNanos()      { return nanos; }
+    }
+
+    private static final class Subnet {
+        final ArrayDeque<Target> queue = new ArrayDeque<>();
+        long nextAt;
+
+        Subnet(long nextAt) {
+            this.nextAt = nextAt;
+        }
+    }
+
+    private static final class Attempt {
+        final Target target;
+        final long started;
+        int portIndex;
+        SocketChannel channel;
+        long deadline;
+        boolean done;
+
+        Attempt(Target target, long started) {
+            this.target  = target;
+            this.started = started;
+        }
+    }
+}
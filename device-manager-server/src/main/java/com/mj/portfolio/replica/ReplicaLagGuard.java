@@ -0,0 +1,158 @@
+package com.mj.portfolio.replica;
+
+import com.mj.portfolio.replica.ReplicaRoutingDataSource.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a read-only transaction may run on the replica right now.
+ *
+ * Every {@code poll-interval} it reads the primary's WAL position and then the replica's
+ * replay position. Once the replica has replayed past a sampled primary position, everything
+ * committed before that sample is visible there: the sample's time is how far the replica is
+ * {@linkplain #caughtUpTo() caught up}. Reads go to the replica only while
+ *
+ * <ul>
+ *   <li>it is caught up to within {@code max-lag} of now, and</li>
+ *   <li>no transaction of this instance has committed a write since it was caught up to
+ *       ({@link #recordWrite()}), so a client that just changed a device reads its change
+ *       back — and so does the device cache and the list ETag, which are shared by every
+ *       client of this instance.</li>
+ * </ul>
+ *
+ * A replica that can't be reached, or isn't replaying WAL (not a standby), gets no reads until
+ * a poll finds it caught up again. Writes committed by other instances are only covered by
+ * {@code max-lag}.
+ *
+ * Times are {@link System#nanoTime()} values.
+ */
+public class ReplicaLagGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final Supplier<String> primaryLsn;
+    private final Supplier<String> replayLsn;
+    private final long maxLagNanos;
+    private final int maxSamples;
+    private final LongSupplier clock;
+
+    // (time, primary LSN) samples the replica hadn't replayed at the last poll, oldest first;
+    // only touched by the polling thread
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+
+    private volatile long caughtUpTo = NEVER;
+    private volatile boolean down = true;
+    private final AtomicLong lastWrite = new AtomicLong(NEVER);
+
+    public ReplicaLagGuard(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag, Duration pollInterval) {
+        this(() -> primary.queryForObject("SELECT CAST(pg_current_wal_lsn() AS text)", String.class),
+                () -> replica.queryForObject("SELECT CAST(pg_last_wal_replay_lsn() AS text)", String.class),
+                maxLag, pollInterval, System::nanoTime);
+    }
+
+    ReplicaLagGuard(Supplier<String> primaryLsn, Supplier<String> replayLsn,
+                    Duration maxLag, Duration pollInterval, LongSupplier clock) {
+        this.primaryLsn  = primaryLsn;
+        this.replayLsn   = replayLsn;
+        this.maxLagNanos = maxLag.toNanos();
+        // Enough history to tell a replica max-lag behind from one further behind
+        this.maxSamples  = (int) Math.min(10_000, maxLag.toNanos() / Math.max(1, pollInterval.toNanos()) + 2);
+        this.clock       = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${device-manager.replica.poll-interval:PT0.2S}")
+    public void poll() {
+        long now = clock.getAsLong();
+        long position;
+        String replayed;
+        try {
+            // Primary first: whatever committed before now is at or below this position
+            position = parseLsn(primaryLsn.get());
+            replayed = replayLsn.get();
+        } catch (RuntimeException e) {
+            markDown("Replica lag check failed, reading from the primary: " + e.getMessage());
+            return;
+        }
+        if (replayed == null) {
+            markDown("Read replica is not replaying WAL (not a standby), reading from the primary");
+            return;
+        }
+        samples.addLast(new long[]{now, position});
+        long replayedTo = parseLsn(replayed);
+        long caught = caughtUpTo;
+        while (!samples.isEmpty() && samples.peekFirst()[1] <= replayedTo) {
+            caught = samples.pollFirst()[0];
+        }
+        // A replica this far behind gets no reads anyway; forgetting old samples only delays its return
+        while (samples.size() > maxSamples) {
+            samples.pollFirst();
+        }
+        caughtUpTo = caught;
+        if (down) {
+            down = false;
+            log.info("Read replica replaying WAL at {}; read-only transactions may use it", replayed);
+        }
+    }
+
+    /** Where a read-only transaction starting now should go. */
+    public Route route() {
+        long caught = caughtUpTo;
+        if (down) {
+            return Route.REPLICA_DOWN;
+        }
+        if (caught == NEVER || clock.getAsLong() - caught > maxLagNanos) {
+            return Route.REPLICA_LAG;
+        }
+        long write = lastWrite.get();
+        return write != NEVER && write - caught >= 0 ? Route.RECENT_WRITE : Route.READ_ONLY;
+    }
+
+    /** Called once a write has committed on the primary. */
+    public void recordWrite() {
+        long now = clock.getAsLong();
+        lastWrite.accumulateAndGet(now, (a, b) -> a == NEVER || b - a > 0 ? b : a);
+    }
+
+    /** A replica connection couldn't be opened; no reads go there until the next successful poll. */
+    public void replicaFailed(Exception e) {
+        markDown("Read replica connection failed, reading from the primary: " + e.getMessage());
+    }
+
+    /** How far behind the replica's data may be, in seconds; NaN when it isn't usable. */
+    public double lagSeconds() {
+        long caught = caughtUpTo;
+        return down || caught == NEVER ? Double.NaN : (clock.getAsLong() - caught) / 1e9;
+    }
+
+    long caughtUpTo() {
+        return caughtUpTo;
+    }
+
+    private void markDown(String message) {
+        if (!down) {
+            log.warn(message);
+        }
+        down = true;
+        caughtUpTo = NEVER;
+    }
+
+    /** {@code "16/B374D848"} (two hex halves) as one number. */
+    static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Not an LSN: " + lsn);
+        }
+        return Long.parseUnsignedLong(lsn.substring(0, slash), 16) << 32
+                | Long.parseUnsignedLong(lsn.substring(slash + 1), 16);
+    }
+}
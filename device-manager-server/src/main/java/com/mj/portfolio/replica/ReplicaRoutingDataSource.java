@@ -0,0 +1,157 @@
+package com.mj.portfolio.replica;
+
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections to read-only transactions ({@code @Transactional(readOnly = true)})
+ * while the {@link ReplicaLagGuard} allows it, and primary connections to everything else.
+ *
+ * The read-only flag is only known once the transaction has begun, after the transaction
+ * manager has asked for its connection — so this must sit behind a
+ * {@link LazyConnectionDataSourceProxy}, which fetches the real connection at the first
+ * statement.
+ *
+ * Every primary connection outside a read-only transaction is taken to write: its commit is
+ * reported to the guard before any after-commit listener runs (cache invalidation, list
+ * version, change feed), so whatever those listeners let through is read from the primary.
+ * A replica that refuses a connection is reported down and the primary used instead.
+ *
+ * Connections handed out are counted per {@link Route}; one per transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    /** Where a connection went, and why. */
+    public enum Route {
+        /** Not in a read-only transaction. */
+        READ_WRITE(false),
+        /** Read-only, but this instance committed a write the replica may not have yet. */
+        RECENT_WRITE(false),
+        /** Read-only, but the replica is further than max-lag behind (or not yet measured). */
+        REPLICA_LAG(false),
+        /** Read-only, but the replica is unreachable or not a standby. */
+        REPLICA_DOWN(false),
+        /** Read-only, on the replica. */
+        READ_ONLY(true);
+
+        private final boolean replica;
+
+        Route(boolean replica) {
+            this.replica = replica;
+        }
+
+        public boolean isReplica() {
+            return replica;
+        }
+
+        public String target() {
+            return replica ? "replica" : "primary";
+        }
+
+        public String reason() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagGuard guard;
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard guard) {
+        this.primary = primary;
+        this.replica = replica;
+        this.guard   = guard;
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routed.get(Route.READ_WRITE).increment();
+            return writing(primary.getConnection());
+        }
+        Route route = guard.route();
+        if (route.isReplica()) {
+            try {
+                Connection con = replica.getConnection();
+                routed.get(route).increment();
+                return con;
+            } catch (SQLException e) {
+                guard.replicaFailed(e);
+                route = Route.REPLICA_DOWN;
+            }
+        }
+        routed.get(route).increment();
+        return primary.getConnection();
+    }
+
+    // Explicit credentials are for the primary's database, so these never go to the replica;
+    // writes through them still hold reads on the primary until the replica catches up
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection con = primary.getConnection(username, password);
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? con : writing(con);
+    }
+
+    public long getRouted(Route route) {
+        return routed.get(route).sum();
+    }
+
+    // The pool settings reported at startup are the primary's
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private Connection writing(Connection con) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    guard.recordWrite();
+                }
+            });
+            return con;
+        }
+        // Auto-commit: whatever was written is committed by the time the connection is closed
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(con, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (method.getName().equals("close")) {
+                            guard.recordWrite();
+                        }
+                    }
+                });
+    }
+}
@@ -2,13 +2,54 @@ package com.mj.portfolio.repository;
 
 import com.mj.portfolio.entity.DeviceLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface DeviceLogRepository extends JpaRepository<DeviceLog, UUID> {
 
-    List<DeviceLog> findByDeviceIdOrderByCreatedAtDesc(UUID deviceId);
-
+    // device_logs is partitioned by month on created_at: ORDER BY created_at DESC LIMIT n is
+    // answered by scanning partitions newest-first and stopping once n rows are found
     List<DeviceLog> findTop10ByOrderByCreatedAtDesc();
+
+    // Keyset pagination, newest first, over (created_at, id). Served by
+    // idx_device_logs_device_created (one device) or idx_device_logs_created (all devices).
+    // A NULL filter disables that predicate; since is inclusive, until exclusive. Bounds on
+    // created_at are plain comparisons so the planner can prune monthly partitions.
+    String SEEK_FILTERS =
+            "(CAST(:deviceId AS uuid) IS NULL OR l.device_id = CAST(:deviceId AS uuid)) AND " +
+            "(CAST(:action AS VARCHAR) IS NULL OR l.action = CAST(:action AS VARCHAR)) AND " +
+            "(CAST(:since AS timestamp) IS NULL OR l.created_at >= CAST(:since AS timestamp)) AND " +
+            "(CAST(:until AS timestamp) IS NULL OR l.created_at < CAST(:until AS timestamp))";
+
+    @Query(value = "SELECT l.* FROM device_logs l WHERE " + SEEK_FILTERS +
+                   " ORDER BY l.created_at DESC, l.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<DeviceLog> seekFirst(@Param("deviceId") UUID deviceId,
+                              @Param("action") String action,
+                              @Param("since") LocalDateTime since,
+                              @Param("until") LocalDateTime until,
+                              @Param("limit") int limit);
+
+    @Query(value = "SELECT l.* FROM device_logs l WHERE " + SEEK_FILTERS +
+                   " AND l.created_at <= :beforeAt AND (l.created_at, l.id) < (:beforeAt, :beforeId)" +
+                   " ORDER BY l.created_at DESC, l.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<DeviceLog> seekBefore(@Param("deviceId") UUID deviceId,
+                               @Param("action") String action,
+                               @Param("since") LocalDateTime since,
+                               @Param("until") LocalDateTime until,
+                               @Param("beforeAt") LocalDateTime beforeAt,
+                               @Param("beforeId") UUID beforeId,
+                               @Param("limit") int limit);
+
+    // Tombstones for delta sync: ids of devices deleted at or after :since, via the partial
+    // index idx_device_logs_deleted. device_ref is kept after the delete nulls device_id.
+    @Query(value = "SELECT DISTINCT l.device_ref FROM device_logs l" +
+                   " WHERE l.action = 'DELETED' AND l.created_at >= :since AND l.device_ref IS NOT NULL",
+           nativeQuery = true)
+    List<UUID> findDeletedDeviceIdsSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,52 @@
+package com.mj.portfolio.repository;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Single-statement device writes, mixed into {@link DeviceRepository}. Each one applies the
+ * change and reads back the new row together with the type and status it replaced, in one
+ * round trip — where load-then-save took two, plus Hibernate's snapshot and dirty check.
+ *
+ * Every write increments {@code version}. With a non-null {@code expectedVersion} it only
+ * applies while the row still has that version (optimistic locking, as {@code @Version} does
+ * for entity saves).
+ *
+ * PostgreSQL only.
+ */
+public interface DeviceMutations {
+
+    /**
+     * Sets the status. Empty when no device has this id, or when its version is not
+     * {@code expectedVersion}.
+     */
+    Optional<Mutation> updateStatus(UUID id, DeviceStatus status, Long expectedVersion);
+
+    /**
+     * Replaces name, type, status, ip address and location with those of {@code values}.
+     * Empty as for {@link #updateStatus}.
+     */
+    Optional<Mutation> update(UUID id, Device values, Long expectedVersion);
+
+    /** The row as written, and what it held before. */
+    final class Mutation {
+        private final DeviceResponse device;
+        private final DeviceType previousType;
+        private final DeviceStatus previousStatus;
+
+        public Mutation(DeviceResponse device, DeviceType previousType, DeviceStatus previousStatus) {
+            this.device         = device;
+            this.previousType   = previousType;
+            this.previousStatus = previousStatus;
+        }
+
+        public DeviceResponse getDevice()        { return device; }
+        public DeviceType getPreviousType()      { return previousType; }
+        public DeviceStatus getPreviousStatus()  { return previousStatus; }
+    }
+}
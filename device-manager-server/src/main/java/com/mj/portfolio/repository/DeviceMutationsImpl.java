@@ -0,0 +1,76 @@
+package com.mj.portfolio.repository;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The row is locked in a CTE before it is updated: a locking read returns the latest committed
+ * row, so the old values reported are exactly the ones this UPDATE replaced, even when another
+ * write committed in between. The UPDATE's own RETURNING only sees the new values.
+ */
+public class DeviceMutationsImpl implements DeviceMutations {
+
+    private static final String LOCK =
+            "WITH old AS (SELECT id, type, status FROM devices WHERE id = ? FOR UPDATE) ";
+    private static final String WHERE = " FROM old WHERE d.id = old.id";
+    private static final String IF_VERSION = " AND d.version = ?";
+    private static final String RETURNING =
+            " RETURNING d.id, d.name, d.type, d.status, d.ip_address, d.location, d.created_at," +
+            " d.updated_at, d.version, old.type AS old_type, old.status AS old_status";
+
+    private final JdbcTemplate jdbc;
+
+    public DeviceMutationsImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Optional<Mutation> updateStatus(UUID id, DeviceStatus status, Long expectedVersion) {
+        List<Object> params = new ArrayList<>(List.of(id, status.name(), LocalDateTime.now()));
+        return execute(LOCK +
+                "UPDATE devices d SET status = ?, updated_at = ?, version = d.version + 1" + WHERE,
+                params, expectedVersion);
+    }
+
+    @Override
+    public Optional<Mutation> update(UUID id, Device values, Long expectedVersion) {
+        List<Object> params = new ArrayList<>(List.of(id));
+        params.add(values.getName());
+        params.add(values.getType().name());
+        params.add(values.getStatus().name());
+        params.add(values.getIpAddress());
+        params.add(values.getLocation());
+        params.add(LocalDateTime.now());
+        return execute(LOCK +
+                "UPDATE devices d SET name = ?, type = ?, status = ?, ip_address = ?, location = ?," +
+                " updated_at = ?, version = d.version + 1" + WHERE,
+                params, expectedVersion);
+    }
+
+    private Optional<Mutation> execute(String sql, List<Object> params, Long expectedVersion) {
+        if (expectedVersion != null) {
+            sql += IF_VERSION;
+            params.add(expectedVersion);
+        }
+        List<Mutation> rows = jdbc.query(sql + RETURNING, (rs, i) -> new Mutation(
+                DeviceResponse.of(rs.getObject("id", UUID.class), rs.getString("name"),
+                        DeviceType.valueOf(rs.getString("type")), DeviceStatus.valueOf(rs.getString("status")),
+                        rs.getString("ip_address"), rs.getString("location"),
+                        rs.getObject("created_at", LocalDateTime.class),
+                        rs.getObject("updated_at", LocalDateTime.class),
+                        rs.getLong("version")),
+                DeviceType.valueOf(rs.getString("old_type")),
+                DeviceStatus.valueOf(rs.getString("old_status"))),
+                params.toArray());
+        return rows.stream().findFirst();
+    }
+}
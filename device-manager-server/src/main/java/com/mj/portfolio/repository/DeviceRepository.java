@@ -3,15 +3,21 @@ package com.mj.portfolio.repository;
 import com.mj.portfolio.entity.Device;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
+public interface DeviceRepository extends JpaRepository<Device, UUID>, DeviceMutations {
 
     Page<Device> findByStatus(DeviceStatus status, Pageable pageable);
 
@@ -19,11 +25,95 @@ public interface DeviceRepository extends JpaRepository<Device, UUID> {
 
     Page<Device> findByStatusAndType(DeviceStatus status, DeviceType type, Pageable pageable);
 
-    @Query("SELECT d FROM Device d WHERE " +
-           "LOWER(d.name) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(d.location) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(d.ipAddress) LIKE LOWER(CONCAT('%', :q, '%'))")
-    Page<Device> search(@Param("q") String query, Pageable pageable);
+    // Substring search served by the pg_trgm GIN indexes (see schema.sql). Results are ranked
+    // by the best word_similarity across the three columns; the caller's sort is not applied.
+    String SEARCH_WHERE =
+            "d.name ILIKE :pattern OR d.location ILIKE :pattern OR d.ip_address ILIKE :pattern";
+
+    @Query(value = "SELECT d.* FROM devices d WHERE " + SEARCH_WHERE +
+                   " ORDER BY GREATEST(word_similarity(:q, d.name)," +
+                   "                   word_similarity(:q, COALESCE(d.location, ''))," +
+                   "                   word_similarity(:q, COALESCE(d.ip_address, ''))) DESC," +
+                   " d.name, d.id",
+           countQuery = "SELECT count(*) FROM devices d WHERE " + SEARCH_WHERE,
+           nativeQuery = true)
+    Page<Device> search(@Param("q") String query, @Param("pattern") String likePattern, Pageable pageable);
+
+    // Network search: the substring match above, OR-ed with ip_address lying inside :cidr via
+    // the inet_or_null GiST index. Ordered by address; the caller's sort is not applied.
+    String NETWORK_WHERE = "inet_or_null(d.ip_address) <<= CAST(:cidr AS inet)";
+
+    @Query(value = "SELECT d.* FROM devices d WHERE " + SEARCH_WHERE + " OR " + NETWORK_WHERE +
+                   " ORDER BY inet_or_null(d.ip_address), d.name, d.id",
+           countQuery = "SELECT count(*) FROM devices d WHERE " + SEARCH_WHERE + " OR " + NETWORK_WHERE,
+           nativeQuery = true)
+    Page<Device> searchWithNetwork(@Param("pattern") String likePattern, @Param("cidr") String cidr,
+                                   Pageable pageable);
+
+    // Keyset ("seek") pagination over (name, id). Native SQL so PostgreSQL sees a row-value
+    // comparison it can answer straight from idx_devices_name_id, with no OFFSET and no count(*).
+    // Enum filters are passed as strings; a NULL filter disables that predicate. :pattern and
+    // :cidr come from DeviceSearchQuery; :cidr is only set alongside :pattern and widens it.
+    String SEEK_FILTERS =
+            "(CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR)) AND " +
+            "(CAST(:type AS VARCHAR) IS NULL OR d.type = CAST(:type AS VARCHAR)) AND " +
+            "(CAST(:pattern AS VARCHAR) IS NULL OR " +
+            " d.name ILIKE CAST(:pattern AS VARCHAR) OR d.location ILIKE CAST(:pattern AS VARCHAR) OR " +
+            " d.ip_address ILIKE CAST(:pattern AS VARCHAR) OR " +
+            " inet_or_null(d.ip_address) <<= CAST(CAST(:cidr AS VARCHAR) AS inet))";
+
+    @Query(value = "SELECT d.* FROM devices d WHERE " + SEEK_FILTERS +
+                   " ORDER BY d.name, d.id LIMIT :limit",
+           nativeQuery = true)
+    List<Device> seekFirst(@Param("status") String status,
+                           @Param("type") String type,
+                           @Param("pattern") String likePattern,
+                           @Param("cidr") String cidr,
+                           @Param("limit") int limit);
+
+    @Query(value = "SELECT d.* FROM devices d WHERE " + SEEK_FILTERS +
+                   " AND (d.name, d.id) > (:afterName, :afterId)" +
+                   " ORDER BY d.name, d.id LIMIT :limit",
+           nativeQuery = true)
+    List<Device> seekAfter(@Param("status") String status,
+                           @Param("type") String type,
+                           @Param("pattern") String likePattern,
+                           @Param("cidr") String cidr,
+                           @Param("afterName") String afterName,
+                           @Param("afterId") UUID afterId,
+                           @Param("limit") int limit);
+
+    // Full export: a forward-only cursor over every matching row (PostgreSQL only streams with
+    // a fetch size inside a transaction). Callers must close the stream and detach each entity.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT d.* FROM devices d WHERE " + SEEK_FILTERS + " ORDER BY d.name, d.id",
+           nativeQuery = true)
+    Stream<Device> streamAll(@Param("status") String status,
+                             @Param("type") String type,
+                             @Param("pattern") String likePattern,
+                             @Param("cidr") String cidr);
+
+    // Delta sync: devices changed at or after :since, in (updated_at, id) order from
+    // idx_devices_updated_id. The After variant resumes past the last row of a full window.
+    @Query(value = "SELECT d.* FROM devices d WHERE d.updated_at >= :since" +
+                   " ORDER BY d.updated_at, d.id LIMIT :limit",
+           nativeQuery = true)
+    List<Device> findUpdatedSince(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    @Query(value = "SELECT d.* FROM devices d WHERE (d.updated_at, d.id) > (:since, :afterId)" +
+                   " ORDER BY d.updated_at, d.id LIMIT :limit",
+           nativeQuery = true)
+    List<Device> findUpdatedAfter(@Param("since") LocalDateTime since,
+                                  @Param("afterId") UUID afterId,
+                                  @Param("limit") int limit);
+
+    // One pass over devices for the whole dashboard; empty cells are simply absent
+    @Query("SELECT d.type AS type, d.status AS status, COUNT(d) AS count " +
+           "FROM Device d GROUP BY d.type, d.status")
+    List<TypeStatusCount> countByTypeAndStatus();
 
     long countByStatus(DeviceStatus status);
 
@@ -0,0 +1,14 @@
+package com.mj.portfolio.repository;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+
+/** Projection for one (type, status) cell of {@link DeviceRepository#countByTypeAndStatus()}. */
+public interface TypeStatusCount {
+
+    DeviceType getType();
+
+    DeviceStatus getStatus();
+
+    long getCount();
+}
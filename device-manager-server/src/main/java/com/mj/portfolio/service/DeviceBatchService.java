@@ -0,0 +1,129 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.audit.AuditEntry;
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.BatchItemResult;
+import com.mj.portfolio.dto.BatchResponse;
+import com.mj.portfolio.dto.DeviceRequest;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk device ingest. Items are validated one by one; valid ones are written in
+ * chunks so Hibernate can group the INSERTs into JDBC batches
+ * (hibernate.jdbc.batch_size in application.yml).
+ *
+ * The persistence context is flushed and cleared after every chunk, so memory stays
+ * bounded by the chunk size rather than the size of the whole upload.
+ */
+@Service
+@Transactional
+public class DeviceBatchService {
+
+    private final DeviceRepository deviceRepo;
+    private final AuditLogWriter auditLog;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+
+    public DeviceBatchService(DeviceRepository deviceRepo,
+                              AuditLogWriter auditLog,
+                              EntityManager entityManager,
+                              Validator validator,
+                              ApplicationEventPublisher events,
+                              @Value("${device-manager.batch.chunk-size:500}") int chunkSize) {
+        this.deviceRepo    = deviceRepo;
+        this.auditLog      = auditLog;
+        this.entityManager = entityManager;
+        this.validator     = validator;
+        this.events        = events;
+        this.chunkSize     = chunkSize;
+    }
+
+    /**
+     * Creates every valid device from {@code requests}, pulling items lazily so a
+     * streamed (NDJSON) upload is never fully materialised. Invalid items are
+     * reported as REJECTED and do not abort the rest of the batch.
+     */
+    public BatchResponse createAll(Iterator<DeviceRequest> requests) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Device> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (requests.hasNext()) {
+            DeviceRequest req = requests.next();
+            String error = validate(req);
+            if (error != null) {
+                results.add(BatchItemResult.rejected(index++, error));
+                continue;
+            }
+            chunk.add(toDevice(req));
+            chunkIndexes.add(index++);
+            results.add(null); // placeholder, filled in once the chunk is written
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, chunkIndexes, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkIndexes, results);
+        }
+        return new BatchResponse(results);
+    }
+
+    private void writeChunk(List<Device> chunk, List<Integer> indexes, List<BatchItemResult> results) {
+        List<Device> saved = deviceRepo.saveAll(chunk);
+        for (int i = 0; i < saved.size(); i++) {
+            Device d = saved.get(i);
+            AuditEntry entry = new AuditEntry(d.getId(), "CREATED", "Device '" + d.getName() + "' created");
+            auditLog.write(entry);
+            results.set(indexes.get(i), BatchItemResult.created(indexes.get(i), d.getId()));
+            events.publishEvent(DeviceChangedEvent.created(DeviceResponse.from(d), List.of(entry.toResponse())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        indexes.clear();
+    }
+
+    private String validate(DeviceRequest req) {
+        if (req == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<DeviceRequest>> violations = validator.validate(req);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Device toDevice(DeviceRequest req) {
+        Device device = new Device();
+        device.setName(req.getName());
+        device.setType(req.getType());
+        device.setStatus(req.getStatus() != null ? req.getStatus() : DeviceStatus.ACTIVE);
+        device.setIpAddress(req.getIpAddress());
+        device.setLocation(req.getLocation());
+        return device;
+    }
+}
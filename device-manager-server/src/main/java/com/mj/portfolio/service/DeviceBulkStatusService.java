@@ -0,0 +1,145 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.BulkStatusResponse;
+import com.mj.portfolio.dto.DeviceFilter;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import com.mj.portfolio.exception.InvalidBulkFilterException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based status change ({@code PATCH /api/v1/devices/status}): every device matching a
+ * filter is moved to one status by a single statement, whatever the number of devices.
+ *
+ * The statement locks the matching rows (in id order, so two bulk changes can't deadlock),
+ * updates them with {@code UPDATE ... RETURNING} and writes their STATUS_CHANGED rows with
+ * {@code INSERT ... SELECT} from the returned rows — one round-trip, no entity loading, one
+ * index update per row. Devices already in the target status are neither touched nor logged.
+ *
+ * The audit rows are part of the statement, so they are written in the caller's transaction
+ * even when {@code device-manager.audit.mode} is async. One {@link DevicesStatusChangedEvent}
+ * covering every changed device is published, so caches, counters and the change feed stay in
+ * step without a listener call per row.
+ *
+ * PostgreSQL only (data-modifying CTEs).
+ */
+@Service
+@Transactional
+public class DeviceBulkStatusService {
+
+    private static final String SQL_HEAD =
+            "WITH target AS (" +
+            "  SELECT d.id, d.status AS old_status FROM devices d" +
+            "  WHERE d.status <> CAST(? AS varchar)";
+    private static final String SQL_TAIL =
+            "  ORDER BY d.id FOR UPDATE" +
+            "), changed AS (" +
+            "  UPDATE devices d SET status = CAST(? AS varchar), updated_at = ?, version = d.version + 1" +
+            "  FROM target t WHERE d.id = t.id" +
+            "  RETURNING d.id, d.type, t.old_status," +
+            "            gen_random_uuid() AS log_id" +
+            "), logged AS (" +
+            "  INSERT INTO device_logs (id, device_id, device_ref, action, description, created_at)" +
+            "  SELECT c.log_id, c.id, c.id, 'STATUS_CHANGED'," +
+            "         'Status changed from ' || c.old_status || ' to ' || CAST(? AS varchar), ?" +
+            "  FROM changed c" +
+            ") " +
+            // The log id is generated with the row, so no join back to logged is needed (PostgreSQL
+            // runs a data-modifying CTE to completion even when the outer query doesn't read it)
+            "SELECT * FROM changed";
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+
+    public DeviceBulkStatusService(JdbcTemplate jdbc, ApplicationEventPublisher events) {
+        this.jdbc   = jdbc;
+        this.events = events;
+    }
+
+    public BulkStatusResponse updateStatus(DeviceStatus newStatus, DeviceFilter filter, boolean returnIds) {
+        if (filter == null || filter.isEmpty()) {
+            // An empty filter would match every device; make the caller say which
+            throw new InvalidBulkFilterException("Filter must name at least one of status, type, location, q, ids");
+        }
+        if (filter.getIds() != null && filter.getIds().isEmpty()) {
+            return new BulkStatusResponse(0, returnIds ? List.of() : null);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> params = new ArrayList<>();
+        params.add(newStatus.name());
+        String sql = SQL_HEAD + where(filter, params) + SQL_TAIL;
+        params.add(newStatus.name());
+        params.add(now);
+        params.add(newStatus.name());
+        params.add(now);
+
+        List<UUID> ids = new ArrayList<>();
+        List<DeviceLogResponse> logs = new ArrayList<>();
+        long[][] previousCounts = new long[DeviceType.values().length][DeviceStatus.values().length];
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            for (int i = 0; i < params.size(); i++) {
+                Object p = params.get(i);
+                ps.setObject(i + 1, p instanceof UUID[] array ? con.createArrayOf("uuid", array) : p);
+            }
+            return ps;
+        }, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            DeviceType type = DeviceType.valueOf(rs.getString("type"));
+            DeviceStatus oldStatus = DeviceStatus.valueOf(rs.getString("old_status"));
+            previousCounts[type.ordinal()][oldStatus.ordinal()]++;
+            logs.add(DeviceLogResponse.of(rs.getObject("log_id", UUID.class), id,
+                    "STATUS_CHANGED", "Status changed from " + oldStatus + " to " + newStatus, now));
+            ids.add(id);
+        });
+        if (!ids.isEmpty()) {
+            events.publishEvent(new DevicesStatusChangedEvent(newStatus, ids, previousCounts, logs));
+        }
+        return new BulkStatusResponse(ids.size(), returnIds ? ids : null);
+    }
+
+    private static String where(DeviceFilter filter, List<Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (filter.getStatus() != null) {
+            where.append(" AND d.status = CAST(? AS varchar)");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getType() != null) {
+            where.append(" AND d.type = CAST(? AS varchar)");
+            params.add(filter.getType().name());
+        }
+        if (filter.getLocation() != null && !filter.getLocation().isBlank()) {
+            where.append(" AND d.location = CAST(? AS varchar)");
+            params.add(filter.getLocation().trim());
+        }
+        DeviceSearchQuery search = DeviceSearchQuery.parse(filter.getQ());
+        if (search != null) {
+            where.append(" AND (d.name ILIKE ? OR d.location ILIKE ? OR d.ip_address ILIKE ?");
+            String pattern = search.likePattern();
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+            if (search.isNetwork()) {
+                where.append(" OR inet_or_null(d.ip_address) <<= CAST(? AS inet)");
+                params.add(search.getCidr());
+            }
+            where.append(')');
+        }
+        if (filter.getIds() != null) {
+            where.append(" AND d.id = ANY(?)");
+            params.add(filter.getIds().toArray(UUID[]::new));
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,204 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.DeviceChangeResponse;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of committed device changes.
+ *
+ * Every {@link DeviceChangedEvent} gets a feed id of the form {@code <epoch>-<seq>} and is kept
+ * in a bounded replay buffer. A client reconnecting with {@code Last-Event-ID} receives what it
+ * missed; if that id is from a previous server run or has fallen out of the buffer, it gets a
+ * {@code reset} event and must reload the full list.
+ *
+ * A bulk status change ({@link DevicesStatusChangedEvent}) is not expanded into one entry per
+ * device, which would flush the replay buffer: it takes a single feed id, empties the buffer and
+ * is sent as a {@code reset}, so every subscriber — live or reconnecting from before it —
+ * reloads once.
+ *
+ * Sends happen on one dedicated thread so a slow subscriber never stalls the committing
+ * request thread, and so every subscriber sees events in feed order.
+ */
+@Component
+public class DeviceChangeFeed {
+
+    public static final String EVENT_HELLO = "hello";
+    public static final String EVENT_RESET = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceChangeFeed.class);
+
+    // Distinguishes ids issued by this process from those of an earlier run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final long emitterTimeoutMillis;
+
+    private final Deque<DeviceChangeResponse> replay = new ArrayDeque<>();
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "device-change-feed");
+        t.setDaemon(true);
+        return t;
+    });
+    private long seq;
+
+    public DeviceChangeFeed(@Value("${device-manager.changes.replay-size:10000}") int replaySize,
+                            @Value("${device-manager.changes.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.replaySize           = replaySize;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        synchronized (replay) {
+            DeviceChangeResponse change = new DeviceChangeResponse(
+                    epoch + "-" + (++seq), event.getChangeType(), event.getDevice(), LocalDateTime.now());
+            replay.addLast(change);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            // Enqueued under the lock so the sender thread sees changes in feed order
+            sender.execute(() -> subscribers.forEach(emitter -> send(emitter, change)));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDevicesStatusChanged(DevicesStatusChangedEvent event) {
+        synchronized (replay) {
+            // Ids up to the previous head now fall before the buffer and get a reset on reconnect
+            replay.clear();
+            String head = epoch + "-" + (++seq);
+            sender.execute(() -> subscribers.forEach(emitter -> sendControl(emitter, EVENT_RESET, head)));
+        }
+    }
+
+    /**
+     * Registers a subscriber. Without {@code lastEventId} it receives a {@code hello} carrying
+     * the current head id and then live changes only.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        synchronized (replay) {
+            String head = headId();
+            if (lastEventId == null || lastEventId.isBlank()) {
+                sender.execute(() -> sendControl(emitter, EVENT_HELLO, head));
+            } else {
+                Optional<List<DeviceChangeResponse>> missed = changesAfter(lastEventId);
+                if (missed.isPresent()) {
+                    sender.execute(() -> missed.get().forEach(c -> send(emitter, c)));
+                } else {
+                    sender.execute(() -> sendControl(emitter, EVENT_RESET, head));
+                }
+            }
+            subscribers.add(emitter);
+        }
+        return emitter;
+    }
+
+    /** Id of the most recent change; "{@code <epoch>-0}" before the first one. */
+    String headId() {
+        synchronized (replay) {
+            return epoch + "-" + seq;
+        }
+    }
+
+    /**
+     * Changes after {@code lastEventId}, or empty when they can no longer be replayed
+     * (unknown epoch, malformed id, or already evicted from the buffer).
+     */
+    Optional<List<DeviceChangeResponse>> changesAfter(String lastEventId) {
+        synchronized (replay) {
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+                return Optional.empty();
+            }
+            long after;
+            try {
+                after = Long.parseLong(lastEventId.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+            long oldest = seq - replay.size() + 1;
+            if (after > seq || after < oldest - 1) {
+                return Optional.empty();
+            }
+            List<DeviceChangeResponse> missed = new ArrayList<>((int) (seq - after));
+            long position = oldest;
+            for (DeviceChangeResponse change : replay) {
+                if (position++ > after) {
+                    missed.add(change);
+                }
+            }
+            return Optional.of(missed);
+        }
+    }
+
+    // Keeps idle connections open through nginx's proxy_read_timeout
+    @Scheduled(fixedRateString = "${device-manager.changes.heartbeat-interval:PT20S}")
+    public void heartbeat() {
+        sender.execute(() -> subscribers.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void send(SseEmitter emitter, DeviceChangeResponse change) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(change.getEventId())
+                    .name(change.getType().name())
+                    .data(change));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container will also fire onError/onCompletion
+            subscribers.remove(emitter);
+            log.debug("Dropped change-feed subscriber: {}", e.getMessage());
+        }
+    }
+
+    private void sendControl(SseEmitter emitter, String name, String head) {
+        try {
+            emitter.send(SseEmitter.event().id(head).name(name).data(head));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the (name, id) ordering of devices, serialised as an opaque
+ * URL-safe token. Clients must treat the token as a black box; the encoding may change.
+ */
+final class DeviceCursor {
+
+    // NUL cannot appear in a PostgreSQL text value, so it is a safe separator
+    private static final char SEPARATOR = '\0';
+
+    private final String name;
+    private final UUID id;
+
+    DeviceCursor(String name, UUID id) {
+        this.name = name;
+        this.id   = id;
+    }
+
+    static DeviceCursor of(Device last) {
+        return new DeviceCursor(last.getName(), last.getId());
+    }
+
+    String getName() { return name; }
+    UUID getId()     { return id; }
+
+    String encode() {
+        String raw = name + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DeviceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new DeviceCursor(raw.substring(0, sep), UUID.fromString(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
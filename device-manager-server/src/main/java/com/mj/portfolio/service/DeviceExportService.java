@@ -0,0 +1,146 @@
+package com.mj.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.exception.InvalidExportFormatException;
+import com.mj.portfolio.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Full-inventory export. Rows are read through a forward-only cursor and written as they
+ * arrive; each entity is detached once written, so memory use does not grow with the
+ * number of devices exported.
+ */
+@Service
+public class DeviceExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension   = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension()   { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidExportFormatException(value);
+            }
+        }
+    }
+
+    static final String CSV_HEADER = "id,name,type,status,ipAddress,location,createdAt,updatedAt";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DeviceRepository deviceRepo;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public DeviceExportService(DeviceRepository deviceRepo, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.deviceRepo    = deviceRepo;
+        this.entityManager = entityManager;
+        // The buffered writer decides when bytes go out; don't flush after every row
+        this.jsonWriter    = objectMapper.writerFor(DeviceResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every device matching the filters to {@code out}, ordered by name. Filters mean
+     * the same as for the device list. Returns the number of devices written.
+     */
+    @Transactional(readOnly = true)
+    public long export(DeviceStatus status, DeviceType type, String q, Format format, OutputStream out)
+            throws IOException {
+        DeviceSearchQuery search = DeviceSearchQuery.parse(q);
+        String pattern = search != null ? search.likePattern() : null;
+        String cidr    = search != null ? search.getCidr() : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        try (Stream<Device> rows = deviceRepo.streamAll(
+                status != null ? status.name() : null, type != null ? type.name() : null, pattern, cidr)) {
+            JsonGenerator json = format == Format.NDJSON ? jsonWriter.createGenerator(writer) : null;
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            for (Iterator<Device> it = rows.iterator(); it.hasNext(); ) {
+                Device device = it.next();
+                DeviceResponse row = DeviceResponse.from(device);
+                entityManager.detach(device);
+                if (json != null) {
+                    jsonWriter.writeValue(json, row);
+                    json.writeRaw('\n');
+                } else {
+                    writeCsv(writer, row);
+                }
+                count++;
+            }
+            if (json != null) {
+                json.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(Writer w, DeviceResponse d) throws IOException {
+        w.write(d.getId().toString());
+        w.write(',');
+        w.write(csv(d.getName()));
+        w.write(',');
+        w.write(d.getType().name());
+        w.write(',');
+        w.write(d.getStatus().name());
+        w.write(',');
+        w.write(csv(d.getIpAddress()));
+        w.write(',');
+        w.write(csv(d.getLocation()));
+        w.write(',');
+        w.write(d.getCreatedAt() != null ? d.getCreatedAt().toString() : "");
+        w.write(',');
+        w.write(d.getUpdatedAt() != null ? d.getUpdatedAt().toString() : "");
+        w.write('\n');
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break; double inner quotes
+    static String csv(String s) {
+        if (s == null) {
+            return "";
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + s.replace("\"", "\"\"") + '"';
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.entity.DeviceLog;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class DeviceLogService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final DeviceLogRepository logRepo;
+
+    public DeviceLogService(DeviceLogRepository logRepo) {
+        this.logRepo = logRepo;
+    }
+
+    /**
+     * Keyset-paginated audit log, newest first. One extra row is fetched to decide whether
+     * a next cursor exists; no count query runs.
+     *
+     * @param deviceId only this device's entries, or null for every device
+     * @param since    inclusive lower bound on created_at, or null
+     * @param until    exclusive upper bound on created_at, or null
+     * @param action   exact action (case-insensitive), or null/blank for all
+     * @param after    cursor from a previous window, or null/blank for the first window
+     */
+    public CursorPageResponse<DeviceLogResponse> findLogs(UUID deviceId, LocalDateTime since, LocalDateTime until,
+                                                          String action, String after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String actionName = action != null && !action.isBlank() ? action.trim().toUpperCase(Locale.ROOT) : null;
+
+        List<DeviceLog> rows;
+        if (after == null || after.isBlank()) {
+            rows = logRepo.seekFirst(deviceId, actionName, since, until, limit + 1);
+        } else {
+            LogCursor cursor = LogCursor.decode(after);
+            rows = logRepo.seekBefore(deviceId, actionName, since, until,
+                    cursor.getCreatedAt(), cursor.getId(), limit + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = LogCursor.of(rows.get(limit - 1)).encode();
+        }
+        return new CursorPageResponse<>(
+                rows.stream().map(DeviceLogResponse::from).collect(Collectors.toList()),
+                limit, nextCursor);
+    }
+}
@@ -0,0 +1,139 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.CacheStatsResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link DeviceResponse} by device id, bounded by size (least recently
+ * used entry evicted first) and by age ({@code ttl}). Cached responses are immutable, so one
+ * instance can be shared by concurrent requests.
+ *
+ * Entries are invalidated when the {@link DeviceChangedEvent} (or, for a bulk status change,
+ * the {@link DevicesStatusChangedEvent}) of a change commits. A read that
+ * started before that invalidation may still hold the old row, so loads are only stored if no
+ * invalidation happened while they ran; such a read returns its value uncached.
+ *
+ * {@code device-manager.cache.device.max-size=0} disables caching.
+ */
+@Component
+public class DeviceResponseCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<UUID, Entry> entries;
+    // Bumped on every invalidation; a load only caches its result if this did not move
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits      = new LongAdder();
+    private final LongAdder misses    = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DeviceResponseCache(@Value("${device-manager.cache.device.max-size:10000}") int maxSize,
+                               @Value("${device-manager.cache.device.ttl:PT1M}") Duration ttl) {
+        this.maxSize  = Math.max(0, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        this.entries  = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() > DeviceResponseCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for {@code id}, or calls {@code loader} and caches its result.
+     * Exceptions from the loader (e.g. device not found) propagate and nothing is cached.
+     */
+    public DeviceResponse get(UUID id, Supplier<DeviceResponse> loader) {
+        if (maxSize == 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry e = entries.get(id);
+            if (e != null) {
+                if (now - e.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return e.value;
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        long seq = invalidations.get();
+        DeviceResponse value = loader.get();
+        synchronized (entries) {
+            if (invalidations.get() == seq) {
+                entries.put(id, new Entry(value, now));
+            }
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        invalidate(event.getDeviceId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDevicesStatusChanged(DevicesStatusChangedEvent event) {
+        invalidateAll(event.getDeviceIds());
+    }
+
+    public void invalidate(UUID id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    /** One pass under the lock; drops everything when there are more ids than entries. */
+    public void invalidateAll(Collection<UUID> ids) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            if (ids.size() >= entries.size()) {
+                entries.clear();
+            } else {
+                ids.forEach(entries::remove);
+            }
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsResponse(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class Entry {
+        final DeviceResponse value;
+        final long loadedAt;
+
+        Entry(DeviceResponse value, long loadedAt) {
+            this.value    = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mj.portfolio.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies a free-text search term. Every term is matched as a substring of name, location
+ * and ip_address (an escaped ILIKE pattern served by the trigram indexes). Explicit network
+ * input — a CIDR ("10.0.0.0/8", "fd00::/8") or an octet prefix ending in a dot ("10.20.") —
+ * also matches by inet containment, OR-ed with the substring match. A bare address such as
+ * "192.168.1.7" stays a substring search, so it still finds .70 to .79 and names or locations
+ * that contain it, and results narrow as an address is typed instead of changing kind.
+ */
+final class DeviceSearchQuery {
+
+    private static final Pattern IPV4 =
+            Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})(?:/(\\d{1,2}))?");
+    // Octet prefix typed into the search box, e.g. "10." or "10.20.30."
+    private static final Pattern IPV4_PREFIX = Pattern.compile("((?:\\d{1,3}\\.){1,3})");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:]*:[0-9a-fA-F:]*(?:/(\\d{1,3}))?");
+
+    private final String text;
+    private final String cidr;
+
+    private DeviceSearchQuery(String text, String cidr) {
+        this.text = text;
+        this.cidr = cidr;
+    }
+
+    /** Returns null when there is nothing to search for. */
+    static DeviceSearchQuery parse(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String trimmed = q.trim();
+        return new DeviceSearchQuery(trimmed, toCidr(trimmed));
+    }
+
+    /** True when {@link #getCidr()} is set, i.e. the term also matches by containment. */
+    boolean isNetwork()  { return cidr != null; }
+    String getText()     { return text; }
+    String getCidr()     { return cidr; }
+
+    /** ILIKE pattern with %, _ and \ in the user's input escaped. */
+    String likePattern() {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static String toCidr(String s) {
+        Matcher m = IPV4.matcher(s);
+        if (m.matches()) {
+            for (int i = 1; i <= 4; i++) {
+                if (Integer.parseInt(m.group(i)) > 255) return null;
+            }
+            return m.group(5) != null && Integer.parseInt(m.group(5)) <= 32 ? s : null;
+        }
+        m = IPV4_PREFIX.matcher(s);
+        if (m.matches()) {
+            String[] octets = s.split("\\.");
+            StringBuilder net = new StringBuilder();
+            for (int i = 0; i < 4; i++) {
+                int octet = i < octets.length ? Integer.parseInt(octets[i]) : 0;
+                if (octet > 255) return null;
+                net.append(i == 0 ? "" : ".").append(octet);
+            }
+            return net + "/" + (octets.length * 8);
+        }
+        m = IPV6.matcher(s);
+        if (m.matches() && s.chars().filter(c -> c == ':').count() >= 2) {
+            String address = s.contains("/") ? s.substring(0, s.indexOf('/')) : s;
+            boolean validPrefix = m.group(1) != null && Integer.parseInt(m.group(1)) <= 128;
+            return validPrefix && isIpv6Literal(address) ? s : null;
+        }
+        return null;
+    }
+
+    private static boolean isIpv6Literal(String address) {
+        try {
+            // Brackets force literal parsing, so this never falls back to a DNS lookup
+            InetAddress.getByName("[" + address + "]");
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
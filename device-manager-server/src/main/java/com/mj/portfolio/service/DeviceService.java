@@ -1,38 +1,66 @@
 package com.mj.portfolio.service;
 
+import com.mj.portfolio.audit.AuditEntry;
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceLogResponse;
 import com.mj.portfolio.dto.DeviceRequest;
 import com.mj.portfolio.dto.DeviceResponse;
 import com.mj.portfolio.entity.Device;
-import com.mj.portfolio.entity.DeviceLog;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DeviceChangedEvent;
 import com.mj.portfolio.exception.DeviceNotFoundException;
-import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.exception.DeviceVersionMismatchException;
+import com.mj.portfolio.repository.DeviceMutations;
+import com.mj.portfolio.repository.DeviceMutations.Mutation;
 import com.mj.portfolio.repository.DeviceRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DeviceService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final DeviceRepository deviceRepo;
-    private final DeviceLogRepository logRepo;
+    private final AuditLogWriter auditLog;
+    private final ApplicationEventPublisher events;
+    private final DeviceResponseCache cache;
 
-    public DeviceService(DeviceRepository deviceRepo, DeviceLogRepository logRepo) {
+    public DeviceService(DeviceRepository deviceRepo, AuditLogWriter auditLog,
+                         ApplicationEventPublisher events, DeviceResponseCache cache) {
         this.deviceRepo = deviceRepo;
-        this.logRepo    = logRepo;
+        this.auditLog   = auditLog;
+        this.events     = events;
+        this.cache      = cache;
     }
 
     @Transactional(readOnly = true)
     public Page<DeviceResponse> findAll(DeviceStatus status, DeviceType type, String q, Pageable pageable) {
         Page<Device> page;
-        if (q != null && !q.isBlank()) {
-            page = deviceRepo.search(q.trim(), pageable);
+        DeviceSearchQuery search = DeviceSearchQuery.parse(q);
+        if (search != null) {
+            // Search results are ranked (text) or ordered by address (network), not by pageable's sort
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            page = search.isNetwork()
+                    ? deviceRepo.searchWithNetwork(search.likePattern(), search.getCidr(), unsorted)
+                    : deviceRepo.search(search.getText(), search.likePattern(), unsorted);
         } else if (status != null && type != null) {
             page = deviceRepo.findByStatusAndType(status, type, pageable);
         } else if (status != null) {
@@ -45,50 +73,172 @@ public class DeviceService {
         return page.map(DeviceResponse::from);
     }
 
+    /**
+     * Keyset-paginated listing ordered by (name, id). Filters combine with AND.
+     * One extra row is fetched to decide whether a next cursor exists, so no count query runs.
+     *
+     * @param after cursor from a previous window, or null/blank for the first window
+     */
     @Transactional(readOnly = true)
+    public CursorPageResponse<DeviceResponse> findAfter(DeviceStatus status, DeviceType type, String q,
+                                                        String after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        String statusName = status != null ? status.name() : null;
+        String typeName   = type != null ? type.name() : null;
+        DeviceSearchQuery search = DeviceSearchQuery.parse(q);
+        String pattern    = search != null ? search.likePattern() : null;
+        String cidr       = search != null ? search.getCidr() : null;
+
+        List<Device> rows;
+        if (after == null || after.isBlank()) {
+            rows = deviceRepo.seekFirst(statusName, typeName, pattern, cidr, limit + 1);
+        } else {
+            DeviceCursor cursor = DeviceCursor.decode(after);
+            rows = deviceRepo.seekAfter(statusName, typeName, pattern, cidr,
+                    cursor.getName(), cursor.getId(), limit + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = DeviceCursor.of(rows.get(limit - 1)).encode();
+        }
+        return new CursorPageResponse<>(
+                rows.stream().map(DeviceResponse::from).collect(Collectors.toList()),
+                limit, nextCursor);
+    }
+
+    /**
+     * Served from {@link DeviceResponseCache}; SUPPORTS keeps a cache hit from opening a
+     * transaction (and borrowing a connection) — a miss runs in the repository's own.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public DeviceResponse findById(UUID id) {
-        return DeviceResponse.from(getOrThrow(id));
+        return cache.get(id, () -> DeviceResponse.from(getOrThrow(id)));
     }
 
     public DeviceResponse create(DeviceRequest req) {
         Device device = new Device();
         applyRequest(device, req);
         Device saved = deviceRepo.save(device);
-        logRepo.save(new DeviceLog(saved, "CREATED",
-                "Device '" + saved.getName() + "' created"));
-        return DeviceResponse.from(saved);
+        DeviceLogResponse log = writeLog(saved.getId(), "CREATED",
+                "Device '" + saved.getName() + "' created");
+        DeviceResponse response = DeviceResponse.from(saved);
+        events.publishEvent(DeviceChangedEvent.created(response, List.of(log)));
+        return response;
     }
 
     public DeviceResponse update(UUID id, DeviceRequest req) {
-        Device device = getOrThrow(id);
-        DeviceStatus oldStatus = device.getStatus();
-        applyRequest(device, req);
-        Device saved = deviceRepo.save(device);
-        String desc = "Device '" + saved.getName() + "' updated";
-        logRepo.save(new DeviceLog(saved, "UPDATED", desc));
-        if (oldStatus != saved.getStatus()) {
-            logRepo.save(new DeviceLog(saved, "STATUS_CHANGED",
-                    "Status changed from " + oldStatus + " to " + saved.getStatus()));
+        return update(id, req, null);
+    }
+
+    /**
+     * One {@code UPDATE ... RETURNING} ({@link DeviceMutations}) instead of load-then-save.
+     *
+     * @param expectedVersion if non-null, the change only applies while the device still has
+     *                        this version; otherwise {@link DeviceVersionMismatchException}
+     */
+    public DeviceResponse update(UUID id, DeviceRequest req, Long expectedVersion) {
+        Device values = new Device();
+        applyRequest(values, req);
+        Mutation m = deviceRepo.update(id, values, expectedVersion)
+                .orElseThrow(() -> notWritten(id, expectedVersion));
+        DeviceResponse response = m.getDevice();
+        List<DeviceLogResponse> logs = new ArrayList<>(2);
+        logs.add(writeLog(id, "UPDATED", "Device '" + response.getName() + "' updated"));
+        if (m.getPreviousStatus() != response.getStatus()) {
+            logs.add(writeLog(id, "STATUS_CHANGED",
+                    "Status changed from " + m.getPreviousStatus() + " to " + response.getStatus()));
         }
-        return DeviceResponse.from(saved);
+        events.publishEvent(DeviceChangedEvent.updated(response, m.getPreviousType(), m.getPreviousStatus(), logs));
+        return response;
     }
 
     public DeviceResponse updateStatus(UUID id, DeviceStatus newStatus) {
-        Device device = getOrThrow(id);
-        DeviceStatus oldStatus = device.getStatus();
-        device.setStatus(newStatus);
-        Device saved = deviceRepo.save(device);
-        logRepo.save(new DeviceLog(saved, "STATUS_CHANGED",
-                "Status changed from " + oldStatus + " to " + newStatus));
-        return DeviceResponse.from(saved);
+        return updateStatus(id, newStatus, null);
+    }
+
+    /** As {@link #update(UUID, DeviceRequest, Long)}, for the status alone. */
+    public DeviceResponse updateStatus(UUID id, DeviceStatus newStatus, Long expectedVersion) {
+        Mutation m = deviceRepo.updateStatus(id, newStatus, expectedVersion)
+                .orElseThrow(() -> notWritten(id, expectedVersion));
+        DeviceLogResponse log = writeLog(id, "STATUS_CHANGED",
+                "Status changed from " + m.getPreviousStatus() + " to " + newStatus);
+        DeviceResponse response = m.getDevice();
+        events.publishEvent(DeviceChangedEvent.updated(response, response.getType(), m.getPreviousStatus(), List.of(log)));
+        return response;
+    }
+
+    /**
+     * Applies statuses reported by the devices themselves (heartbeats). The devices are loaded
+     * in one query; only those whose status actually differs are updated, logged as
+     * STATUS_CHANGED and published. Unknown ids are skipped. Returns the number changed.
+     */
+    public int applyReportedStatuses(Map<UUID, DeviceStatus> reported) {
+        return applyReportedStatuses(reported, EnumSet.allOf(DeviceStatus.class));
+    }
+
+    /**
+     * As {@link #applyReportedStatuses(Map)}, but only devices currently in one of
+     * {@code replaceable} are changed — e.g. the prober never overrides a status an operator
+     * set while its sweep was running.
+     */
+    public int applyReportedStatuses(Map<UUID, DeviceStatus> reported, Set<DeviceStatus> replaceable) {
+        Map<Device, DeviceStatus> changed = new LinkedHashMap<>();
+        for (Device device : deviceRepo.findAllById(reported.keySet())) {
+            DeviceStatus oldStatus = device.getStatus();
+            DeviceStatus newStatus = reported.get(device.getId());
+            if (newStatus == null || newStatus == oldStatus || !replaceable.contains(oldStatus)) {
+                continue;
+            }
+            device.setStatus(newStatus);
+            changed.put(device, oldStatus);
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // Hibernate increments the versions on flush; publish the responses only after it
+        deviceRepo.flush();
+        changed.forEach((device, oldStatus) -> {
+            DeviceLogResponse log = writeLog(device.getId(), "STATUS_CHANGED",
+                    "Status changed from " + oldStatus + " to " + device.getStatus());
+            events.publishEvent(DeviceChangedEvent.updated(
+                    DeviceResponse.from(device), device.getType(), oldStatus, List.of(log)));
+        });
+        return changed.size();
     }
 
     public void delete(UUID id) {
+        delete(id, null);
+    }
+
+    /**
+     * @param expectedVersion if non-null, the device is only deleted while it still has this
+     *                        version; otherwise {@link DeviceVersionMismatchException}
+     */
+    public void delete(UUID id, Long expectedVersion) {
         Device device = getOrThrow(id);
-        // Log before delete so the log entry is still valid
-        logRepo.save(new DeviceLog(device, "DELETED",
-                "Device '" + device.getName() + "' deleted"));
+        if (expectedVersion != null && !expectedVersion.equals(device.getVersion())) {
+            throw new DeviceVersionMismatchException(id);
+        }
+        DeviceLogResponse log = writeLog(id, "DELETED",
+                "Device '" + device.getName() + "' deleted");
+        DeviceResponse last = DeviceResponse.from(device);
         deviceRepo.delete(device);
+        events.publishEvent(DeviceChangedEvent.deleted(last, List.of(log)));
+    }
+
+    private DeviceLogResponse writeLog(UUID deviceId, String action, String description) {
+        AuditEntry entry = new AuditEntry(deviceId, action, description);
+        auditLog.write(entry);
+        return entry.toResponse();
+    }
+
+    /** Why a conditional write matched no row: the device is gone, or its version moved on. */
+    private RuntimeException notWritten(UUID id, Long expectedVersion) {
+        return expectedVersion != null && deviceRepo.existsById(id)
+                ? new DeviceVersionMismatchException(id)
+                : new DeviceNotFoundException(id);
     }
 
     private Device getOrThrow(UUID id) {
@@ -0,0 +1,250 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.repository.DeviceRepository;
+import com.mj.portfolio.repository.TypeStatusCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory (type, status) device counts, kept current from committed
+ * {@link DeviceChangedEvent}s and {@link DevicesStatusChangedEvent}s so {@code /api/v1/stats} can be answered without a query.
+ *
+ * Each cell is a {@link LongAdder}, which stripes contended updates across cells instead of
+ * spinning on one CAS. A periodic full recount reconciles the counters with the database;
+ * the difference found is recorded as drift.
+ *
+ * Changes are applied from a synchronization registered just before their transaction commits,
+ * rather than from an AFTER_COMMIT listener, so the counters know which changes are between
+ * commit and apply: a recount may already include those, and a fold then would count them twice.
+ *
+ * Active only with {@code device-manager.stats.mode=counters}.
+ */
+@Component
+@ConditionalOnProperty(name = "device-manager.stats.mode", havingValue = "counters")
+public class DeviceStatsCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceStatsCounters.class);
+    private static final int RECENT_SIZE = 10;
+
+    private final DeviceRepository deviceRepo;
+    private final DeviceLogRepository logRepo;
+
+    private final LongAdder[][] cells =
+            new LongAdder[DeviceType.values().length][DeviceStatus.values().length];
+    // Bumped on every applied event; lets reconcile() detect changes racing with its recount
+    private final AtomicLong changeSeq = new AtomicLong();
+    // Changes whose transaction is committing or committed but that are not applied yet
+    private final AtomicInteger pending = new AtomicInteger();
+    // Read lock: events, side by side. Write lock: reconcile()'s check and correction
+    private final ReentrantReadWriteLock applyLock = new ReentrantReadWriteLock();
+    private final Deque<DeviceLogResponse> recent = new ArrayDeque<>(RECENT_SIZE);
+
+    private volatile boolean seeded;
+    private volatile long lastDrift;
+    private volatile long reconciliations;
+    private volatile LocalDateTime lastReconciledAt;
+
+    public DeviceStatsCounters(DeviceRepository deviceRepo, DeviceLogRepository logRepo) {
+        this.deviceRepo = deviceRepo;
+        this.logRepo    = logRepo;
+        for (LongAdder[] row : cells) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onDeviceChangeCommitting(DeviceChangedEvent event) {
+        applyAfterCommit(() -> onDeviceChanged(event));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onDevicesStatusChangeCommitting(DevicesStatusChangedEvent event) {
+        applyAfterCommit(() -> onDevicesStatusChanged(event));
+    }
+
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        DeviceType type = event.getDevice().getType();
+        DeviceStatus status = event.getDevice().getStatus();
+        Lock lock = applyLock.readLock();
+        lock.lock();
+        try {
+            switch (event.getChangeType()) {
+                case CREATED -> cell(type, status).increment();
+                case DELETED -> cell(type, status).decrement();
+                case UPDATED -> {
+                    if (event.getPreviousType() != type || event.getPreviousStatus() != status) {
+                        cell(event.getPreviousType(), event.getPreviousStatus()).decrement();
+                        cell(type, status).increment();
+                    }
+                }
+            }
+            changeSeq.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        addRecent(event.getLogs());
+    }
+
+    /** Applies a whole bulk status change at once: one move per (type, previous status) cell. */
+    public void onDevicesStatusChanged(DevicesStatusChangedEvent event) {
+        DeviceStatus status = event.getStatus();
+        Lock lock = applyLock.readLock();
+        lock.lock();
+        try {
+            for (DeviceType type : DeviceType.values()) {
+                for (DeviceStatus previous : DeviceStatus.values()) {
+                    long moved = event.previousCount(type, previous);
+                    if (moved != 0 && previous != status) {
+                        cell(type, previous).add(-moved);
+                        cell(type, status).add(moved);
+                    }
+                }
+            }
+            changeSeq.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        List<DeviceLogResponse> logs = event.getLogs();
+        addRecent(logs.subList(Math.max(0, logs.size() - RECENT_SIZE), logs.size()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Recounts from the database and folds the difference into the counters. Applying a
+     * delta (rather than overwriting) keeps increments that land mid-recount. If any event
+     * was applied while the recount ran, or a committed change is still waiting to be applied
+     * (the recount may already have seen it), the comparison is unreliable and is retried on
+     * the next tick instead. The check and the fold share a lock with the event path, so an
+     * event can't land between them and be cancelled out by the correction.
+     */
+    @Scheduled(fixedDelayString = "${device-manager.stats.reconcile-interval:PT5M}",
+               initialDelayString = "${device-manager.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long seqBefore = changeSeq.get();
+        long[][] actual = new long[cells.length][cells[0].length];
+        for (TypeStatusCount c : deviceRepo.countByTypeAndStatus()) {
+            actual[c.getType().ordinal()][c.getStatus().ordinal()] = c.getCount();
+        }
+        List<DeviceLogResponse> latest = logRepo.findTop10ByOrderByCreatedAtDesc().stream()
+                .map(DeviceLogResponse::from)
+                .toList();
+        long drift = 0;
+        Lock lock = applyLock.writeLock();
+        lock.lock();
+        try {
+            if (seeded && (changeSeq.get() != seqBefore || pending.get() != 0)) {
+                log.debug("Skipping stats reconciliation: devices changed during recount");
+                return;
+            }
+            for (int t = 0; t < cells.length; t++) {
+                for (int s = 0; s < cells[t].length; s++) {
+                    long delta = actual[t][s] - cells[t][s].sum();
+                    if (delta != 0) {
+                        cells[t][s].add(delta);
+                        drift += Math.abs(delta);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        synchronized (recent) {
+            recent.clear();
+            recent.addAll(latest);
+        }
+
+        if (!seeded) {
+            // The first pass loads the counters; nothing had been tracked yet, so no drift
+            seeded = true;
+            lastDrift = 0;
+            log.info("Stats counters seeded from database");
+        } else {
+            lastDrift = drift;
+            if (drift != 0) {
+                log.warn("Stats counters drifted by {} device(s); corrected from database", drift);
+            }
+        }
+        lastReconciledAt = LocalDateTime.now();
+        reconciliations++;
+    }
+
+    public boolean isSeeded()                 { return seeded; }
+    public long getLastDrift()                { return lastDrift; }
+    public LocalDateTime getLastReconciledAt() { return lastReconciledAt; }
+    public long getChangeSeq()                { return changeSeq.get(); }
+    public long getReconciliations()          { return reconciliations; }
+
+    public long count(DeviceType type, DeviceStatus status) {
+        return cell(type, status).sum();
+    }
+
+    public List<DeviceLogResponse> recentActivity() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    // Counted as pending from before the commit until the change is applied (or rolled back)
+    private void applyAfterCommit(Runnable apply) {
+        pending.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply.run();
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void addRecent(List<DeviceLogResponse> entries) {
+        synchronized (recent) {
+            for (DeviceLogResponse entry : entries) {
+                if (recent.size() == RECENT_SIZE) {
+                    recent.removeLast();
+                }
+                recent.addFirst(entry);
+            }
+        }
+    }
+
+    private LongAdder cell(DeviceType type, DeviceStatus status) {
+        return cells[type.ordinal()][status.ordinal()];
+    }
+}
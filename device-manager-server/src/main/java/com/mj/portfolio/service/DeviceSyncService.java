@@ -0,0 +1,104 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.DeviceDeltaResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.repository.DeviceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync: instead of refetching every device, a client sends the watermark from its
+ * last response and gets back only what changed — rows whose updated_at is at or past it,
+ * and tombstones from DELETED audit entries logged since.
+ *
+ * updated_at is stamped before commit, so a slow transaction can commit a row older than a
+ * watermark already handed out. Once caught up, the watermark is therefore held back by
+ * {@code overlap}: rows changed within that window are sent again on the next call, and
+ * clients treat the repeats as no-op upserts.
+ *
+ * Tombstones are only as complete as device_logs: partitions past the retention horizon are
+ * dropped, and the async audit writer can lose entries. A watermark at or before the newest
+ * tombstone that may be missing gets {@code resync}: the client rebuilds its set from this
+ * pass instead of trusting {@code deleted}. Losses are only known to the instance that had
+ * them, like the list ETags (see {@link DeviceVersion}).
+ */
+@Service
+@Transactional(readOnly = true)
+public class DeviceSyncService {
+
+    static final int MAX_PAGE_SIZE = 5000;
+
+    private final DeviceRepository deviceRepo;
+    private final DeviceLogRepository logRepo;
+    private final AuditLogWriter auditLog;
+    private final Duration overlap;
+    private final int retentionMonths;
+
+    public DeviceSyncService(DeviceRepository deviceRepo,
+                             DeviceLogRepository logRepo,
+                             AuditLogWriter auditLog,
+                             @Value("${device-manager.sync.overlap:PT5S}") Duration overlap,
+                             @Value("${device-manager.logs.retention.months:0}") int retentionMonths) {
+        this.deviceRepo      = deviceRepo;
+        this.logRepo         = logRepo;
+        this.auditLog        = auditLog;
+        this.overlap         = overlap;
+        this.retentionMonths = Math.max(0, retentionMonths);
+    }
+
+    /**
+     * @param since   inclusive lower bound on updated_at (the client's watermark)
+     * @param afterId watermarkId from a full window, or null; rows at {@code since} up to and
+     *                including this id are skipped
+     */
+    public DeviceDeltaResponse changesSince(LocalDateTime since, UUID afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Devices first: one deleted between the two reads is then tombstoned, not resurrected
+        List<Device> rows = afterId == null
+                ? deviceRepo.findUpdatedSince(since, limit + 1)
+                : deviceRepo.findUpdatedAfter(since, afterId, limit + 1);
+        List<UUID> deleted = logRepo.findDeletedDeviceIdsSince(since);
+
+        boolean hasMore = rows.size() > limit;
+        LocalDateTime watermark;
+        UUID watermarkId = null;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+            Device last = rows.get(limit - 1);
+            watermark   = last.getUpdatedAt();
+            watermarkId = last.getId();
+        } else {
+            LocalDateTime settled = LocalDateTime.now().minus(overlap);
+            watermark = settled.isAfter(since) ? settled : since;
+        }
+        LocalDateTime horizon = tombstoneHorizon();
+        boolean resync = horizon != null && !since.isAfter(horizon);
+        return new DeviceDeltaResponse(
+                rows.stream().map(DeviceResponse::from).collect(Collectors.toList()),
+                deleted, watermark, watermarkId, hasMore, resync);
+    }
+
+    /** Watermarks at or before this may miss tombstones; null while device_logs has them all. */
+    LocalDateTime tombstoneHorizon() {
+        // Same cutoff as DeviceLogPartitionManager: months before it are retired
+        LocalDateTime horizon = retentionMonths > 0
+                ? YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay()
+                : null;
+        LocalDateTime lost = auditLog.lostUntil();
+        if (lost != null && (horizon == null || lost.isAfter(horizon))) {
+            horizon = lost;
+        }
+        return horizon;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global version of the device table as seen by this process: a counter bumped once per
+ * committed {@link DeviceChangedEvent} or {@link DevicesStatusChangedEvent}. Cheap validators for list-style responses are built
+ * from it, so a conditional request can be answered 304 without running the list query.
+ *
+ * Read it BEFORE running the query a response is built from. The bump happens after commit,
+ * so a response can only be tagged with a version older than its data — which costs an
+ * extra full response later, never a stale 304.
+ *
+ * Tags carry a random per-process epoch: a restarted (or another) instance never matches
+ * a tag issued by this one.
+ *
+ * Single instance only: the counter sees nothing but this process's own commits. Writes made
+ * by another instance on the same database, or by SQL from outside the application, don't
+ * move it, so this instance would keep answering 304 with data it no longer has. Deployments
+ * like that set {@code device-manager.list-etag.enabled=false}; {@link #tag()} is then null
+ * and no validator is issued.
+ */
+@Component
+public class DeviceVersion {
+
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong();
+    private final boolean enabled;
+
+    public DeviceVersion(@Value("${device-manager.list-etag.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDevicesStatusChanged(DevicesStatusChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Opaque, e.g. {@code "1x2k9f3q0a-2a"}; changes whenever {@link #current()} does. Null when
+     * validators are disabled.
+     */
+    public String tag() {
+        if (!enabled) {
+            return null;
+        }
+        return epoch + "-" + Long.toString(version.get(), 36);
+    }
+}
@@ -0,0 +1,183 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.HeartbeatRequest;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind ingestion of device heartbeats ({@code POST /api/v1/heartbeats}).
+ *
+ * A heartbeat only touches memory: it is merged into a map holding the latest report per
+ * device (the later {@code ts} wins; a report without a status keeps the last one that had
+ * one). Every {@code flush-interval} the map is drained and written in one transaction:
+ *
+ * <ul>
+ *   <li>{@code devices.last_seen_at} for every reporting device, as one JDBC batch of UPDATEs
+ *       that never moves the timestamp backwards;</li>
+ *   <li>reported statuses through {@link DeviceService#applyReportedStatuses}, which writes,
+ *       logs and publishes only the devices whose status actually changed.</li>
+ * </ul>
+ *
+ * However often a device reports, it costs one row update per flush. {@code last_seen_at} is
+ * written with plain SQL, outside Hibernate: it does not move {@code updated_at}, the list
+ * ETag or the change feed, which only follow real changes.
+ *
+ * Heartbeats still pending when the process dies are lost; the next ones replace them.
+ */
+@Service
+public class HeartbeatService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatService.class);
+
+    static final String UPDATE_LAST_SEEN =
+            "UPDATE devices SET last_seen_at = ? WHERE id = ? AND (last_seen_at IS NULL OR last_seen_at < ?)";
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final DeviceService deviceService;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<UUID, Beat> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder received    = new LongAdder();
+    private final LongAdder rejected    = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder transitions = new LongAdder();
+    private final LongAdder flushes     = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    public HeartbeatService(JdbcTemplate jdbc, PlatformTransactionManager txManager, DeviceService deviceService,
+                            @Value("${device-manager.heartbeats.max-pending:100000}") int maxPending) {
+        this.jdbc          = jdbc;
+        this.tx            = new TransactionTemplate(txManager);
+        this.deviceService = deviceService;
+        this.maxPending    = Math.max(1, maxPending);
+    }
+
+    /** Queues a batch for the next flush; returns how many were accepted. Never blocks on the database. */
+    public int record(List<HeartbeatRequest> heartbeats) {
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = 0;
+        for (HeartbeatRequest h : heartbeats) {
+            received.increment();
+            UUID id = h.getDeviceId();
+            // Known devices are always merged; a new one only while the map has room
+            if (id == null || (pending.size() >= maxPending && !pending.containsKey(id))) {
+                rejected.increment();
+                continue;
+            }
+            LocalDateTime ts = h.getTs() == null || h.getTs().isAfter(now) ? now : h.getTs();
+            pending.merge(id, new Beat(ts, h.getStatus()), Beat::merge);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    @Scheduled(fixedDelayString = "${device-manager.heartbeats.flush-interval:PT1S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<UUID> ids = new ArrayList<>();
+        List<Beat> beats = new ArrayList<>();
+        for (Map.Entry<UUID, Beat> e : pending.entrySet()) {
+            // Only removes the beat we read: one merged in meanwhile stays for the next flush
+            if (pending.remove(e.getKey(), e.getValue())) {
+                ids.add(e.getKey());
+                beats.add(e.getValue());
+            }
+        }
+        try {
+            int changed = tx.execute(status -> write(ids, beats));
+            flushedRows.add(ids.size());
+            transitions.add(changed);
+        } catch (RuntimeException e) {
+            // Put them back unless a newer report arrived; they go out with the next flush
+            for (int i = 0; i < ids.size(); i++) {
+                pending.merge(ids.get(i), beats.get(i), Beat::merge);
+            }
+            log.error("Failed to flush {} heartbeats", ids.size(), e);
+            return;
+        }
+        flushes.increment();
+        lastFlushNanos.set(System.nanoTime() - start);
+    }
+
+    private int write(List<UUID> ids, List<Beat> beats) {
+        List<Object[]> lastSeen = new ArrayList<>(ids.size());
+        Map<UUID, DeviceStatus> reported = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Timestamp ts = Timestamp.valueOf(beats.get(i).ts);
+            lastSeen.add(new Object[]{ts, ids.get(i), ts});
+            if (beats.get(i).status != null) {
+                reported.put(ids.get(i), beats.get(i).status);
+            }
+        }
+        jdbc.batchUpdate(UPDATE_LAST_SEEN, lastSeen);
+        if (reported.isEmpty()) {
+            return 0;
+        }
+        int changed = 0;
+        List<UUID> statusIds = new ArrayList<>(reported.keySet());
+        for (int from = 0; from < statusIds.size(); from += CHUNK_SIZE) {
+            Map<UUID, DeviceStatus> chunk = new HashMap<>();
+            for (UUID id : statusIds.subList(from, Math.min(from + CHUNK_SIZE, statusIds.size()))) {
+                chunk.put(id, reported.get(id));
+            }
+            changed += deviceService.applyReportedStatuses(chunk);
+        }
+        return changed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    public long getReceived()        { return received.sum(); }
+    public long getRejected()        { return rejected.sum(); }
+    public int getPending()          { return pending.size(); }
+    public long getFlushedRows()     { return flushedRows.sum(); }
+    public long getTransitions()     { return transitions.sum(); }
+    public long getFlushes()         { return flushes.sum(); }
+    public double getLastFlushMillis() { return lastFlushNanos.get() / 1_000_000.0; }
+
+    /** Latest report of one device; immutable, so the map can compare-and-remove it. */
+    static final class Beat {
+        final LocalDateTime ts;
+        final DeviceStatus status;
+
+        Beat(LocalDateTime ts, DeviceStatus status) {
+            this.ts     = ts;
+            this.status = status;
+        }
+
+        static Beat merge(Beat a, Beat b) {
+            Beat later   = b.ts.isBefore(a.ts) ? a : b;
+            Beat earlier = later == a ? b : a;
+            return later.status != null || earlier.status == null
+                    ? later : new Beat(later.ts, earlier.status);
+        }
+    }
+}
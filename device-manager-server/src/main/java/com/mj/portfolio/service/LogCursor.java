@@ -0,0 +1,53 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.entity.DeviceLog;
+import com.mj.portfolio.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the (created_at DESC, id DESC) ordering of device logs, serialised as
+ * an opaque URL-safe token like {@link DeviceCursor}.
+ */
+final class LogCursor {
+
+    private static final char SEPARATOR = '\0';
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    LogCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id        = id;
+    }
+
+    static LogCursor of(DeviceLog last) {
+        return new LogCursor(last.getCreatedAt(), last.getId());
+    }
+
+    LocalDateTime getCreatedAt() { return createdAt; }
+    UUID getId()                 { return id; }
+
+    String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new LogCursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -1,54 +1,111 @@
 package com.mj.portfolio.service;
 
+import com.mj.portfolio.audit.AuditLogWriter;
 import com.mj.portfolio.dto.DeviceLogResponse;
 import com.mj.portfolio.dto.StatsResponse;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
 import com.mj.portfolio.repository.DeviceLogRepository;
 import com.mj.portfolio.repository.DeviceRepository;
+import com.mj.portfolio.repository.TypeStatusCount;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional(readOnly = true)
 public class StatsService {
 
     private final DeviceRepository deviceRepo;
     private final DeviceLogRepository logRepo;
+    private final Optional<DeviceStatsCounters> counters;
+    private final DeviceVersion version;
+    private final AuditLogWriter auditLog;
 
-    public StatsService(DeviceRepository deviceRepo, DeviceLogRepository logRepo) {
+    public StatsService(DeviceRepository deviceRepo, DeviceLogRepository logRepo,
+                        Optional<DeviceStatsCounters> counters, DeviceVersion version,
+                        AuditLogWriter auditLog) {
         this.deviceRepo = deviceRepo;
         this.logRepo    = logRepo;
+        this.counters   = counters;
+        this.version    = version;
+        this.auditLog   = auditLog;
     }
 
+    /**
+     * Changes whenever {@link #getStats()} could: on committed device changes, on audit rows
+     * written (recent activity; in async audit mode they land after the change commits) and,
+     * in counters mode, when the counters apply a change or reconcile. Read it before
+     * {@link #getStats()}, never after — see {@link DeviceVersion}. Null when
+     * {@link DeviceVersion} issues no tags.
+     */
+    public String versionTag() {
+        String devices = version.tag();
+        if (devices == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder(devices)
+                .append('-').append(Long.toString(auditLog.stats().getWritten(), 36));
+        counters.filter(DeviceStatsCounters::isSeeded).ifPresent(c -> tag
+                .append('-').append(Long.toString(c.getChangeSeq(), 36))
+                .append('-').append(Long.toString(c.getReconciliations(), 36)));
+        return tag.toString();
+    }
+
+    // SUPPORTS rather than a real read-only transaction: in counters mode nothing touches
+    // the database, and beginning a JPA transaction would still check out a connection.
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public StatsResponse getStats() {
-        long total = deviceRepo.count();
-
-        Map<String, Long> byType = Arrays.stream(DeviceType.values())
-                .collect(Collectors.toMap(
-                        Enum::name,
-                        deviceRepo::countByType,
-                        (a, b) -> a,
-                        LinkedHashMap::new));
-
-        Map<String, Long> byStatus = Arrays.stream(DeviceStatus.values())
-                .collect(Collectors.toMap(
-                        Enum::name,
-                        deviceRepo::countByStatus,
-                        (a, b) -> a,
-                        LinkedHashMap::new));
+        if (counters.isPresent() && counters.get().isSeeded()) {
+            return fromCounters(counters.get());
+        }
+        return fromQuery();
+    }
+
+    private StatsResponse fromQuery() {
+        Map<String, Long> byType = emptyCounts(DeviceType.values());
+        Map<String, Long> byStatus = emptyCounts(DeviceStatus.values());
+        long total = 0;
+        for (TypeStatusCount c : deviceRepo.countByTypeAndStatus()) {
+            byType.merge(c.getType().name(), c.getCount(), Long::sum);
+            byStatus.merge(c.getStatus().name(), c.getCount(), Long::sum);
+            total += c.getCount();
+        }
 
         List<DeviceLogResponse> recent = logRepo.findTop10ByOrderByCreatedAtDesc()
                 .stream()
                 .map(DeviceLogResponse::from)
                 .collect(Collectors.toList());
 
-        return new StatsResponse(total, byType, byStatus, recent);
+        return new StatsResponse(total, byType, byStatus, recent, StatsResponse.Source.QUERY, null, null);
+    }
+
+    private StatsResponse fromCounters(DeviceStatsCounters c) {
+        Map<String, Long> byType = emptyCounts(DeviceType.values());
+        Map<String, Long> byStatus = emptyCounts(DeviceStatus.values());
+        long total = 0;
+        for (DeviceType type : DeviceType.values()) {
+            for (DeviceStatus status : DeviceStatus.values()) {
+                long n = c.count(type, status);
+                byType.merge(type.name(), n, Long::sum);
+                byStatus.merge(status.name(), n, Long::sum);
+                total += n;
+            }
+        }
+        return new StatsResponse(total, byType, byStatus, c.recentActivity(),
+                StatsResponse.Source.COUNTERS, c.getLastReconciledAt(), c.getLastDrift());
+    }
+
+    private static Map<String, Long> emptyCounts(Enum<?>[] keys) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Enum<?> key : keys) {
+            counts.put(key.name(), 0L);
+        }
+        return counts;
     }
 }
@@ -9,23 +9,78 @@ CREATE TABLE IF NOT EXISTS devices (
     ip_address  VARCHAR(45),
     location    VARCHAR(200),
     created_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
-    updated_at  TIMESTAMP    NOT NULL DEFAULT NOW()
+    updated_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+    last_seen_at TIMESTAMP,
+    version     BIGINT       NOT NULL DEFAULT 0
 );
 
 -- Migration: add updated_at to existing tables from device-inventory-cli (Project 1).
 -- PostgreSQL fills existing rows with DEFAULT NOW() — safe on 16.
 ALTER TABLE devices ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
 
+-- Last heartbeat (POST /api/v1/heartbeats), written in batches by HeartbeatService.
+-- NULL until a device first reports.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS last_seen_at TIMESTAMP;
+
+-- Optimistic-locking version (Device.version): incremented by every write that changes what
+-- the API returns, compared against If-Match on PUT / PATCH / DELETE.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+-- With ddl-auto=update (dev) Hibernate has already added the column, nullable and without a
+-- default, before this script runs; backfill it and tighten it to match.
+UPDATE devices SET version = 0 WHERE version IS NULL;
+ALTER TABLE devices ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE devices ALTER COLUMN version SET NOT NULL;
+
 -- device_id uses ON DELETE SET NULL so deletion audit logs survive after the device is removed.
 -- A NULL device_id means "this log belongs to a device that has since been deleted."
+--
+-- Range-partitioned by month on created_at, so old months can be detached and archived
+-- without a DELETE/VACUUM pass (see DeviceLogPartitionManager, which also creates the monthly
+-- and DEFAULT partitions, and converts a table created before partitioning). The primary key
+-- must include the partition key.
 CREATE TABLE IF NOT EXISTS device_logs (
-    id          UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    id          UUID        NOT NULL DEFAULT gen_random_uuid(),
     device_id   UUID        REFERENCES devices(id) ON DELETE SET NULL,
+    device_ref  UUID,
     action      VARCHAR(50) NOT NULL,
     description TEXT,
-    created_at  TIMESTAMP   NOT NULL DEFAULT NOW()
-);
+    created_at  TIMESTAMP   NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- device_ref is the device id as logged, with no foreign key: it survives the delete that
+-- nulls device_id, so DELETED entries can serve as tombstones for delta sync
+-- (GET /api/v1/devices?updatedSince=...).
+ALTER TABLE device_logs ADD COLUMN IF NOT EXISTS device_ref UUID;
+CREATE INDEX IF NOT EXISTS idx_device_logs_deleted    ON device_logs(created_at) WHERE action = 'DELETED';
 
-CREATE INDEX IF NOT EXISTS idx_device_logs_device_id ON device_logs(device_id);
+-- Log history, newest first: per device (also serves the ON DELETE SET NULL lookup, which
+-- made the old single-column idx_device_logs_device_id redundant) and across all devices
+DROP INDEX IF EXISTS idx_device_logs_device_id;
+CREATE INDEX IF NOT EXISTS idx_device_logs_device_created ON device_logs(device_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_device_logs_created    ON device_logs(created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_devices_status         ON devices(status);
 CREATE INDEX IF NOT EXISTS idx_devices_type           ON devices(type);
+
+-- Keyset pagination (GET /api/v1/devices?after=...) seeks on (name, id)
+CREATE INDEX IF NOT EXISTS idx_devices_name_id        ON devices(name, id);
+
+-- Delta sync (GET /api/v1/devices?updatedSince=...) seeks on (updated_at, id)
+CREATE INDEX IF NOT EXISTS idx_devices_updated_id     ON devices(updated_at, id);
+
+-- Search: trigram GIN indexes let ILIKE '%q%' use an index instead of a sequential scan.
+-- pg_trgm is a trusted extension (PostgreSQL 13+), so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_devices_name_trgm      ON devices USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_devices_location_trgm  ON devices USING gin (location gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_devices_ip_trgm        ON devices USING gin (ip_address gin_trgm_ops);
+
+-- ip_address is free text, so a plain ::inet cast would fail on bad rows. inet_or_null maps
+-- unparseable values to NULL, which makes it safe for an expression index and CIDR queries
+-- (ip <<= '10.0.0.0/8'). The body is single-quoted so the script splitter sees one statement.
+CREATE OR REPLACE FUNCTION inet_or_null(value TEXT) RETURNS INET
+    LANGUAGE plpgsql IMMUTABLE STRICT AS
+'BEGIN RETURN value::inet; EXCEPTION WHEN others THEN RETURN NULL; END;';
+
+CREATE INDEX IF NOT EXISTS idx_devices_ip_inet        ON devices USING gist (inet_or_null(ip_address) inet_ops);
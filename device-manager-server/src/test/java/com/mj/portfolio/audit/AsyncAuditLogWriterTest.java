@@ -0,0 +1,91 @@
+package com.mj.portfolio.audit;
+
+import com.mj.portfolio.dto.AuditStatsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAuditLogWriterTest {
+
+    @Mock DeviceLogBatchInserter inserter;
+
+    private AsyncAuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void write_groupsQueuedEntriesIntoOneInsert() {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(inv -> {
+            synchronized (batchSizes) {
+                batchSizes.add(inv.<List<AuditEntry>>getArgument(0).size());
+            }
+            return null;
+        }).when(inserter).insertAll(anyList());
+        writer = new AsyncAuditLogWriter(inserter, 100, 3, Duration.ofSeconds(5), "caller-runs", Duration.ZERO);
+
+        for (int i = 0; i < 3; i++) {
+            writer.write(entry());
+        }
+
+        verify(inserter, timeout(2000)).insertAll(anyList());
+        synchronized (batchSizes) {
+            assertThat(batchSizes).containsExactly(3);
+        }
+        assertThat(writer.stats().getWritten()).isEqualTo(3);
+    }
+
+    @Test
+    void write_dropsWhenQueueFullAndOverflowIsDrop() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(inv -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(inserter).insertAll(anyList());
+        writer = new AsyncAuditLogWriter(inserter, 1, 1, Duration.ofMillis(10), "drop", Duration.ZERO);
+
+        writer.write(entry());                 // taken by the worker, which then blocks
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        writer.write(entry());                 // fills the queue
+        AuditEntry dropped = entry();
+        writer.write(dropped);                 // no room left
+
+        AuditStatsResponse stats = writer.stats();
+        assertThat(stats.getDropped()).isEqualTo(1);
+        assertThat(writer.lostUntil()).isEqualTo(dropped.getCreatedAt());
+        assertThat(stats.getQueueDepth()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void lostUntil_startsAtStartup_becauseAPreviousProcessMayHaveDiedWithEntriesQueued() {
+        LocalDateTime before = LocalDateTime.now();
+        writer = new AsyncAuditLogWriter(inserter, 100, 3, Duration.ofSeconds(5), "caller-runs", Duration.ZERO);
+
+        assertThat(writer.lostUntil()).isBetween(before, LocalDateTime.now());
+    }
+
+    private static AuditEntry entry() {
+        return new AuditEntry(UUID.randomUUID(), "CREATED", "created");
+    }
+}
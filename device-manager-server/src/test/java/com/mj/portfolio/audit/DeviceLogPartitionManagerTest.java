@@ -0,0 +1,68 @@
+package com.mj.portfolio.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeviceLogPartitionManagerTest {
+
+    @Test
+    void partitionName_roundTripsThroughMonthOf() {
+        YearMonth month = YearMonth.of(2024, 3);
+
+        String name = DeviceLogPartitionManager.partitionName(month);
+
+        assertThat(name).isEqualTo("device_logs_p202403");
+        assertThat(DeviceLogPartitionManager.monthOf(name)).contains(month);
+    }
+
+    @Test
+    void monthOf_ignoresOtherTables() {
+        assertThat(DeviceLogPartitionManager.monthOf(DeviceLogPartitionManager.DEFAULT_PARTITION)).isEmpty();
+        assertThat(DeviceLogPartitionManager.monthOf("device_logs_p202413")).isEmpty();
+        assertThat(DeviceLogPartitionManager.monthOf("device_logs_p2024031")).isEmpty();
+    }
+
+    @Test
+    void bounds_coverOneMonthHalfOpen() {
+        YearMonth december = YearMonth.of(2023, 12);
+
+        assertThat(DeviceLogPartitionManager.lowerBound(december)).isEqualTo(LocalDateTime.of(2023, 12, 1, 0, 0));
+        assertThat(DeviceLogPartitionManager.upperBound(december)).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(DeviceLogPartitionManager.bounds(december))
+                .isEqualTo("FOR VALUES FROM ('2023-12-01T00:00') TO ('2024-01-01T00:00')");
+    }
+
+    @Test
+    void retirable_keepsCutoffMonthAndLaterAndSortsOldestFirst() {
+        List<String> partitions = List.of("device_logs_p202402", "device_logs_default",
+                "device_logs_p202312", "device_logs_p202403", "device_logs_p202401");
+
+        List<String> retired = DeviceLogPartitionManager.retirable(partitions, YearMonth.of(2024, 2));
+
+        assertThat(retired).containsExactly("device_logs_p202312", "device_logs_p202401");
+    }
+
+    @Test
+    void archivedLog_keepsDeviceRefOfADeletedDevice() throws Exception {
+        UUID ref = UUID.randomUUID();
+        DeviceLogResponse entry = DeviceLogResponse.of(UUID.randomUUID(), null, "DELETED",
+                "Device deleted", LocalDateTime.of(2024, 3, 1, 12, 0));
+
+        JsonNode line = new ObjectMapper().findAndRegisterModules()
+                .valueToTree(new DeviceLogPartitionManager.ArchivedLog(entry, ref));
+
+        assertThat(line.get("deviceRef").asText()).isEqualTo(ref.toString());
+        assertThat(line.get("deviceId").isNull()).isTrue();
+        assertThat(line.get("action").asText()).isEqualTo("DELETED");
+        assertThat(line.has("entry")).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.mj.portfolio.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPasswordEncoderTest {
+
+    private final PasswordEncoder bcrypt = spy(new BCryptPasswordEncoder(4));
+    private final String hash = bcrypt.encode("secret");
+
+    @Test
+    void matches_verifiesOnceThenServesFromCache() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(bcrypt, 10, Duration.ofMinutes(5));
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("secret", hash)).isTrue();
+
+        verify(bcrypt, times(1)).matches("secret", hash);
+        assertThat(encoder.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void matches_neverCachesFailures() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(bcrypt, 10, Duration.ofMinutes(5));
+
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+
+        verify(bcrypt, times(2)).matches("wrong", hash);
+    }
+
+    @Test
+    void matches_doesNotReuseEntryForAnotherStoredHash() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(bcrypt, 10, Duration.ofMinutes(5));
+        String changed = bcrypt.encode("other");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        // Password changed: the old cached check must not let "secret" through
+        assertThat(encoder.matches("secret", changed)).isFalse();
+    }
+
+    @Test
+    void matches_reverifiesAfterTtl() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(bcrypt, 10, Duration.ZERO);
+
+        encoder.matches("secret", hash);
+        encoder.matches("secret", hash);
+
+        verify(bcrypt, times(2)).matches("secret", hash);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mj.portfolio.config;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.AuditStatsResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.service.DeviceResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    private final MetricsConfig config = new MetricsConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deviceCacheMetrics_readLiveCounters() {
+        DeviceResponseCache cache = new DeviceResponseCache(10, Duration.ofMinutes(1));
+        config.deviceCacheMetrics(cache).bindTo(registry);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, () -> DeviceResponse.from(new Device()));
+        cache.get(id, () -> DeviceResponse.from(new Device()));
+
+        assertThat(registry.get("cache.gets").tags("cache", "device", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "device", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.size").tag("cache", "device").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void auditLogMetrics_exposeWriterStatsTaggedWithMode() {
+        AuditLogWriter writer = mock(AuditLogWriter.class);
+        when(writer.stats()).thenReturn(new AuditStatsResponse("ASYNC", 3, 100, 40, 2, 1, 0, 4, 2.5, 7.0));
+        config.auditLogMetrics(writer).bindTo(registry);
+
+        assertThat(registry.get("audit.log.written").tag("mode", "ASYNC").functionCounter().count()).isEqualTo(40);
+        assertThat(registry.get("audit.log.dropped").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("audit.log.queue.depth").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("audit.log.flushes").functionTimer().count()).isEqualTo(4);
+        assertThat(registry.get("audit.log.flushes").functionTimer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(10.0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.mj.portfolio.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    @Test
+    void isLoopback_acceptsOnlyLocalAddresses() {
+        assertThat(SecurityConfig.isLoopback("127.0.0.1")).isTrue();
+        assertThat(SecurityConfig.isLoopback("0:0:0:0:0:0:0:1")).isTrue();
+        assertThat(SecurityConfig.isLoopback("10.0.0.5")).isFalse();
+        assertThat(SecurityConfig.isLoopback(null)).isFalse();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mj.portfolio.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StartupSettingsReportTest {
+
+    private static final String PG_URL = "jdbc:postgresql://localhost:5432/devicedb";
+
+    @Test
+    void check_passesTunedPostgresSettings() {
+        Properties driver = new Properties();
+        driver.setProperty("reWriteBatchedInserts", "true");
+
+        assertThat(StartupSettingsReport.check(500, 500, PG_URL, driver)).isEmpty();
+    }
+
+    @Test
+    void check_flagsBatchingThatTheDriverUndoes() {
+        assertThat(StartupSettingsReport.check(500, 500, PG_URL, new Properties()))
+                .singleElement().asString().contains("reWriteBatchedInserts");
+    }
+
+    @Test
+    void check_flagsChunksThatEndInShortBatches() {
+        assertThat(StartupSettingsReport.check(500, 750, "jdbc:h2:mem:x", new Properties()))
+                .singleElement().asString().contains("chunk-size (750)");
+    }
+}
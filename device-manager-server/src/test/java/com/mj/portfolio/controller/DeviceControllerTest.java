@@ -2,12 +2,24 @@ package com.mj.portfolio.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mj.portfolio.config.SecurityConfig;
+import com.mj.portfolio.dto.BatchItemResult;
+import com.mj.portfolio.dto.BatchResponse;
+import com.mj.portfolio.dto.BulkStatusResponse;
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceDeltaResponse;
 import com.mj.portfolio.dto.DeviceRequest;
 import com.mj.portfolio.dto.DeviceResponse;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
 import com.mj.portfolio.exception.DeviceNotFoundException;
+import com.mj.portfolio.exception.DeviceVersionMismatchException;
+import com.mj.portfolio.exception.InvalidBulkFilterException;
+import com.mj.portfolio.service.DeviceBatchService;
+import com.mj.portfolio.service.DeviceBulkStatusService;
+import com.mj.portfolio.service.DeviceExportService;
 import com.mj.portfolio.service.DeviceService;
+import com.mj.portfolio.service.DeviceSyncService;
+import com.mj.portfolio.service.DeviceVersion;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,12 +30,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +62,11 @@ class DeviceControllerTest {
     @Autowired ObjectMapper objectMapper;
 
     @MockBean DeviceService service;
+    @MockBean DeviceBatchService batchService;
+    @MockBean DeviceBulkStatusService bulkStatusService;
+    @MockBean DeviceExportService exportService;
+    @MockBean DeviceSyncService syncService;
+    @MockBean DeviceVersion version;
 
     private DeviceResponse sampleResponse() {
         // Use reflection-free builder-style via setters would require a mutable object;
@@ -67,6 +94,76 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.content[0].name").value("Router-1"));
     }
 
+    @Test
+    void getList_returns304WithoutQuerying_whileVersionUnchanged() throws Exception {
+        when(version.tag()).thenReturn("e-1");
+        when(service.findAll(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse()), PageRequest.of(0, 20), 1L));
+
+        String etag = mockMvc.perform(get("/api/v1/devices"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"e-1\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/devices").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(service, times(1)).findAll(any(), any(), any(), any(Pageable.class));
+
+        when(version.tag()).thenReturn("e-2");
+        mockMvc.perform(get("/api/v1/devices").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getList_sendsNoETagAndAlwaysQueries_whenListETagsAreDisabled() throws Exception {
+        when(version.tag()).thenReturn(null);
+        when(service.findAll(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse()), PageRequest.of(0, 20), 1L));
+
+        mockMvc.perform(get("/api/v1/devices").header("If-None-Match", "W/\"e-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+        verify(service).findAll(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void getList_cursorMode_returnsNextCursorWithoutPageMetadata() throws Exception {
+        when(service.findAfter(any(), any(), any(), eq(""), eq(20)))
+                .thenReturn(new CursorPageResponse<>(List.of(sampleResponse()), 20, "abc"));
+
+        mockMvc.perform(get("/api/v1/devices").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Router-1"))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getList_updatedSince_returnsDeltaWithTombstones() throws Exception {
+        UUID gone = UUID.randomUUID();
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 10, 15, 30);
+        when(syncService.changesSince(eq(since), isNull(), eq(1000)))
+                .thenReturn(new DeviceDeltaResponse(List.of(sampleResponse()), List.of(gone),
+                        since.plusMinutes(1), null, false, false));
+
+        mockMvc.perform(get("/api/v1/devices").param("updatedSince", "2026-03-01T10:15:30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices[0].name").value("Router-1"))
+                .andExpect(jsonPath("$.deleted[0]").value(gone.toString()))
+                .andExpect(jsonPath("$.watermark").value("2026-03-01T10:16:30"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.resync").value(false));
+    }
+
+    @Test
+    void getList_returns400_whenCursorAndDeltaModesAreCombined() throws Exception {
+        mockMvc.perform(get("/api/v1/devices").param("after", "").param("updatedSince", "2026-03-01T10:15:30"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("can't be combined")));
+
+        verifyNoInteractions(service, syncService);
+    }
+
     @Test
     void getById_returns200_whenFound() throws Exception {
         UUID id = UUID.randomUUID();
@@ -77,6 +174,24 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.name").value("Router-1"));
     }
 
+    @Test
+    void getById_returns304_whenETagMatches() throws Exception {
+        UUID id = UUID.randomUUID();
+        com.mj.portfolio.entity.Device d = new com.mj.portfolio.entity.Device();
+        d.setName("Router-1");
+        ReflectionTestUtils.setField(d, "version", 7L);
+        when(service.findById(id)).thenReturn(DeviceResponse.from(d));
+
+        String etag = mockMvc.perform(get("/api/v1/devices/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/devices/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getById_returns404_whenNotFound() throws Exception {
         UUID id = UUID.randomUUID();
@@ -112,6 +227,51 @@ class DeviceControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void patchStatus_passesIfMatchVersion_andReturnsNewETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        com.mj.portfolio.entity.Device d = new com.mj.portfolio.entity.Device();
+        d.setName("Router-1");
+        d.setStatus(DeviceStatus.MAINTENANCE);
+        ReflectionTestUtils.setField(d, "version", 4L);
+        when(service.updateStatus(id, DeviceStatus.MAINTENANCE, 3L)).thenReturn(DeviceResponse.from(d));
+
+        mockMvc.perform(patch("/api/v1/devices/{id}/status", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"maintenance\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void update_returns412_whenIfMatchIsStale() throws Exception {
+        UUID id = UUID.randomUUID();
+        DeviceRequest req = new DeviceRequest();
+        req.setName("Router-1");
+        req.setType(DeviceType.ROUTER);
+        when(service.update(eq(id), any(DeviceRequest.class), eq(3L)))
+                .thenThrow(new DeviceVersionMismatchException(id));
+
+        mockMvc.perform(put("/api/v1/devices/{id}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void delete_returns412WithoutWriting_whenIfMatchIsWeakOrForeign() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        for (String tag : List.of("W/\"3\"", "\"65f2a1.0\"", "\"3\", \"4\"")) {
+            mockMvc.perform(delete("/api/v1/devices/{id}", id).header("If-Match", tag))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        verify(service, times(0)).delete(any(), any());
+    }
+
     @Test
     void delete_returns204() throws Exception {
         UUID id = UUID.randomUUID();
@@ -119,4 +279,93 @@ class DeviceControllerTest {
         mockMvc.perform(delete("/api/v1/devices/{id}", id))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void createBatch_returnsPerItemResults() throws Exception {
+        when(batchService.createAll(any())).thenReturn(new BatchResponse(List.of(
+                BatchItemResult.created(0, UUID.randomUUID()),
+                BatchItemResult.rejected(1, "name: Name is required"))));
+
+        mockMvc.perform(post("/api/v1/devices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"A\",\"type\":\"SERVER\"},{\"type\":\"SERVER\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[1].outcome").value("REJECTED"));
+    }
+
+    @Test
+    void createBatchNdjson_returns400_whenLineIsMalformed() throws Exception {
+        when(batchService.createAll(any())).thenAnswer(inv -> {
+            java.util.Iterator<?> it = inv.getArgument(0);
+            while (it.hasNext()) it.next();
+            return new BatchResponse(List.of());
+        });
+
+        mockMvc.perform(post("/api/v1/devices/batch")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"A\",\"type\":\"SERVER\"}\n{not json\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_streamsBodyWithAttachmentHeaders() throws Exception {
+        // The mock response isn't thread-safe: hold the write until the first dispatch has
+        // finished adding headers on the way out of the filter chain
+        CountDownLatch dispatched = new CountDownLatch(1);
+        doAnswer(inv -> {
+            dispatched.await(5, TimeUnit.SECONDS);
+            inv.<java.io.OutputStream>getArgument(4).write("id,name\n".getBytes());
+            return 1L;
+        }).when(exportService).export(any(), any(), any(), eq(DeviceExportService.Format.CSV), any());
+
+        MvcResult started = mockMvc.perform(get("/api/v1/devices/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        dispatched.countDown();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"devices.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,name\n"));
+    }
+
+    @Test
+    void export_returns400_forUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/devices/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void patchStatusByFilter_returnsUpdatedCountAndIds() throws Exception {
+        UUID changed = UUID.randomUUID();
+        when(bulkStatusService.updateStatus(eq(DeviceStatus.MAINTENANCE),
+                argThat(f -> "DC-1".equals(f.getLocation()) && f.getType() == DeviceType.ROUTER), eq(true)))
+                .thenReturn(new BulkStatusResponse(1, List.of(changed)));
+
+        mockMvc.perform(patch("/api/v1/devices/status").param("returnIds", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"MAINTENANCE\",\"filter\":{\"location\":\"DC-1\",\"type\":\"ROUTER\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.ids[0]").value(changed.toString()));
+    }
+
+    @Test
+    void patchStatusByFilter_returns400_forMissingStatusOrEmptyFilter() throws Exception {
+        mockMvc.perform(patch("/api/v1/devices/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"location\":\"DC-1\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.status").exists());
+
+        when(bulkStatusService.updateStatus(any(), any(), anyBoolean()))
+                .thenThrow(new InvalidBulkFilterException("Filter must name at least one criterion"));
+        mockMvc.perform(patch("/api/v1/devices/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"MAINTENANCE\",\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,130 @@
+package com.mj.portfolio.probe;
+
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.probe.TcpReachabilityProber.Outcome;
+import com.mj.portfolio.probe.TcpReachabilityProber.Result;
+import com.mj.portfolio.probe.TcpReachabilityProber.Target;
+import com.mj.portfolio.service.DeviceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReachabilitySweeperTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock DeviceService deviceService;
+    @Mock TcpReachabilityProber prober;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<UUID, String[]> devices = new HashMap<>();
+    private final Map<UUID, Outcome> outcomes = new HashMap<>();
+    private ReachabilitySweeper sweeper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sweeper = new ReachabilitySweeper(jdbc, deviceService, registry, prober, Duration.ofMinutes(5), 0.1, 2);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Map.Entry<UUID, String[]> device : devices.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("id", UUID.class)).thenReturn(device.getKey());
+                when(rs.getString("ip_address")).thenReturn(device.getValue()[0]);
+                lenient().when(rs.getString("status")).thenReturn(device.getValue()[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+        lenient().doAnswer(inv -> {
+            Collection<Target> targets = inv.getArgument(0);
+            Consumer<Result> results = inv.getArgument(1);
+            for (Target t : targets) {
+                results.accept(new Result(t, outcomes.get(t.getDeviceId()), 22, 1_000_000));
+            }
+            return null;
+        }).when(prober).sweep(any(), any());
+    }
+
+    @Test
+    void sweep_activatesAnInactiveDeviceThatAnswers() {
+        UUID id = device("10.0.0.1", DeviceStatus.INACTIVE, Outcome.REFUSED);
+        when(deviceService.applyReportedStatuses(any(), any())).thenReturn(1);
+
+        assertThat(sweeper.sweep()).isEqualTo(1);
+
+        verify(deviceService).applyReportedStatuses(eq(Map.of(id, DeviceStatus.ACTIVE)),
+                argThat(s -> s.contains(DeviceStatus.ACTIVE) && s.contains(DeviceStatus.INACTIVE)
+                        && !s.contains(DeviceStatus.MAINTENANCE)));
+        assertThat(registry.get("probe.latency").tag("outcome", "refused").timer().count()).isEqualTo(1);
+        assertThat(registry.get("probe.sweep.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_deactivatesOnlyAfterConsecutiveFailures() {
+        UUID id = device("10.0.0.2", DeviceStatus.ACTIVE, Outcome.TIMEOUT);
+        device("10.0.0.3", DeviceStatus.ACTIVE, Outcome.CONNECTED);
+
+        sweeper.sweep();
+        verifyNoInteractions(deviceService);
+
+        sweeper.sweep();
+        verify(deviceService).applyReportedStatuses(eq(Map.of(id, DeviceStatus.INACTIVE)), any());
+    }
+
+    @Test
+    void sweep_resetsTheFailureCount_whenADeviceAnswers() {
+        UUID id = device("10.0.0.4", DeviceStatus.ACTIVE, Outcome.UNREACHABLE);
+        sweeper.sweep();
+        outcomes.put(id, Outcome.CONNECTED);
+        sweeper.sweep();
+        outcomes.put(id, Outcome.UNREACHABLE);
+        sweeper.sweep();
+
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void sweep_skipsAddressesThatAreNotIpLiterals() throws IOException {
+        device("printer.local", DeviceStatus.ACTIVE, Outcome.TIMEOUT);
+
+        sweeper.sweep();
+
+        verify(prober).sweep(argThat(Collection::isEmpty), any());
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void sweep_changesNothing_whenTheSweepIsAborted() throws IOException {
+        device("10.0.0.5", DeviceStatus.INACTIVE, Outcome.CONNECTED);
+        doThrow(new IOException("Too many open files")).when(prober).sweep(any(), any());
+
+        assertThat(sweeper.sweep()).isZero();
+
+        verifyNoInteractions(deviceService);
+    }
+
+    private UUID device(String ip, DeviceStatus status, Outcome outcome) {
+        UUID id = UUID.randomUUID();
+        devices.put(id, new String[]{ip, status.name()});
+        outcomes.put(id, outcome);
+        return id;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mj.portfolio.probe;
+
+import com.mj.portfolio.probe.TcpReachabilityProber.Outcome;
+import com.mj.portfolio.probe.TcpReachabilityProber.Result;
+import com.mj.portfolio.probe.TcpReachabilityProber.Target;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TcpReachabilityProberTest {
+
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    @Test
+    void sweep_reportsConnected_forAListeningSocket() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, LOOPBACK)) {
+            List<Result> results = sweep(prober(server.getLocalPort(), 0), List.of(target(LOOPBACK)));
+
+            assertThat(results).singleElement().satisfies(r -> {
+                assertThat(r.getOutcome()).isEqualTo(Outcome.CONNECTED);
+                assertThat(r.getPort()).isEqualTo(server.getLocalPort());
+            });
+        }
+    }
+
+    @Test
+    void sweep_countsARefusedConnectAsUp() throws IOException {
+        List<Result> results = sweep(prober(closedPort(), 0), List.of(target(LOOPBACK)));
+
+        assertThat(results).singleElement().satisfies(r -> {
+            assertThat(r.getOutcome()).isEqualTo(Outcome.REFUSED);
+            assertThat(r.getOutcome().isUp()).isTrue();
+        });
+    }
+
+    @Test
+    void sweep_deliversEveryTargetOnce_withFewerSlotsThanTargets() throws IOException {
+        List<Target> targets = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            // All of 127.0.0.0/8 is loopback on Linux; spread over several /24s
+            targets.add(target(InetAddress.getByName("127.0." + (i % 4) + "." + i)));
+        }
+        TcpReachabilityProber prober = new TcpReachabilityProber(
+                List.of(closedPort()), Duration.ofSeconds(2), 2, 0, 24);
+
+        List<Result> results = sweep(prober, targets);
+
+        assertThat(results).extracting(Result::getTarget).containsExactlyInAnyOrderElementsOf(targets);
+    }
+
+    @Test
+    void sweep_spacesProbesWithinOneSubnet() throws IOException {
+        List<Target> targets = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            targets.add(target(InetAddress.getByName("127.0.0." + i)));
+        }
+        long start = System.nanoTime();
+
+        sweep(prober(closedPort(), 20), targets);
+
+        // 5 gaps of 50 ms, each jittered by at most 20%
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void parseAddress_acceptsOnlyIpLiterals() {
+        assertThat(TcpReachabilityProber.parseAddress("10.0.0.1")).isNotNull();
+        assertThat(TcpReachabilityProber.parseAddress(" fe80::1 ")).isNotNull();
+        assertThat(TcpReachabilityProber.parseAddress("999.1.1.1")).isNull();
+        assertThat(TcpReachabilityProber.parseAddress("router.local")).isNull();
+        assertThat(TcpReachabilityProber.parseAddress("")).isNull();
+    }
+
+    @Test
+    void subnetOf_masksToTheConfiguredPrefix() {
+        TcpReachabilityProber prober = new TcpReachabilityProber(List.of(22), Duration.ofSeconds(1), 1, 0, 20);
+
+        assertThat(prober.subnetOf(TcpReachabilityProber.parseAddress("10.1.47.3"))).isEqualTo("10.1.32.0/20");
+        assertThat(prober.subnetOf(TcpReachabilityProber.parseAddress("2001:db8:1:2:3::4")))
+                .isEqualTo("2001:db8:1:2:0:0:0:0/64");
+    }
+
+    private static TcpReachabilityProber prober(int port, double perSubnetRate) {
+        return new TcpReachabilityProber(List.of(port), Duration.ofSeconds(2), 16, perSubnetRate, 24);
+    }
+
+    private static List<Result> sweep(TcpReachabilityProber prober, List<Target> targets) throws IOException {
+        List<Result> results = new ArrayList<>();
+        prober.sweep(targets, results::add);
+        return results;
+    }
+
+    private static Target target(InetAddress address) {
+        return new Target(UUID.randomUUID(), address);
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, LOOPBACK)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mj.portfolio.replica;
+
+import com.mj.portfolio.replica.ReplicaRoutingDataSource.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReplicaLagGuardTest {
+
+    private long now = 1_000_000_000L;
+    private String primaryLsn = "0/1000";
+    private String replayLsn = "0/1000";
+    private RuntimeException replicaError;
+    private ReplicaLagGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new ReplicaLagGuard(() -> primaryLsn, () -> {
+            if (replicaError != null) {
+                throw replicaError;
+            }
+            return replayLsn;
+        }, Duration.ofSeconds(5), Duration.ofMillis(200), () -> now);
+    }
+
+    @Test
+    void noReadsBeforeTheFirstPoll() {
+        assertThat(guard.route()).isEqualTo(Route.REPLICA_DOWN);
+        assertThat(guard.lagSeconds()).isNaN();
+    }
+
+    @Test
+    void caughtUpReplicaGetsReads() {
+        guard.poll();
+        advance(100);
+
+        assertThat(guard.route()).isEqualTo(Route.READ_ONLY);
+        assertThat(guard.lagSeconds()).isEqualTo(0.1);
+    }
+
+    @Test
+    void writeSendsReadsToThePrimaryUntilReplicaHasReplayedPastIt() {
+        guard.poll();
+        advance(50);
+        guard.recordWrite();
+        assertThat(guard.route()).isEqualTo(Route.RECENT_WRITE);
+
+        // Sampled after the write, but the replica hasn't replayed that far yet
+        advance(200);
+        primaryLsn = "0/2000";
+        guard.poll();
+        assertThat(guard.route()).isEqualTo(Route.RECENT_WRITE);
+
+        advance(200);
+        replayLsn = "0/2000";
+        guard.poll();
+        assertThat(guard.route()).isEqualTo(Route.READ_ONLY);
+    }
+
+    @Test
+    void caughtUpToIsTheNewestSampleTheReplicaHasReached() {
+        long first = now;
+        guard.poll();
+        advance(200);
+        primaryLsn = "0/2000";
+        long second = now;
+        guard.poll();
+        advance(200);
+        primaryLsn = "0/3000";
+        guard.poll();
+        assertThat(guard.caughtUpTo()).isEqualTo(first);
+
+        advance(200);
+        replayLsn = "0/2800";
+        guard.poll();
+        assertThat(guard.caughtUpTo()).isEqualTo(second);
+    }
+
+    @Test
+    void replicaBehindMaxLagGetsNoReads() {
+        guard.poll();
+        primaryLsn = "0/2000";
+        for (int i = 0; i < 30; i++) {
+            advance(200);
+            guard.poll();
+        }
+
+        assertThat(guard.route()).isEqualTo(Route.REPLICA_LAG);
+        assertThat(guard.lagSeconds()).isGreaterThan(5);
+    }
+
+    @Test
+    void unreachableOrNonStandbyReplicaIsDownUntilNextGoodPoll() {
+        guard.poll();
+        replicaError = new DataAccessResourceFailureException("connection refused");
+        guard.poll();
+        assertThat(guard.route()).isEqualTo(Route.REPLICA_DOWN);
+
+        replicaError = null;
+        replayLsn = null;
+        guard.poll();
+        assertThat(guard.route()).isEqualTo(Route.REPLICA_DOWN);
+
+        replayLsn = "0/1000";
+        guard.poll();
+        assertThat(guard.route()).isEqualTo(Route.READ_ONLY);
+
+        guard.replicaFailed(new IllegalStateException("pool exhausted"));
+        assertThat(guard.route()).isEqualTo(Route.REPLICA_DOWN);
+    }
+
+    @Test
+    void parsesLsn() {
+        assertThat(ReplicaLagGuard.parseLsn("0/1000")).isEqualTo(0x1000L);
+        assertThat(ReplicaLagGuard.parseLsn("16/B374D848")).isEqualTo(0x16_B374D848L);
+        assertThatThrownBy(() -> ReplicaLagGuard.parseLsn("B374D848"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advance(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,119 @@
+package com.mj.portfolio.replica;
+
+import com.mj.portfolio.replica.ReplicaRoutingDataSource.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock DataSource primary;
+    @Mock DataSource replica;
+    @Mock ReplicaLagGuard guard;
+    @Mock Connection primaryConnection;
+    @Mock Connection replicaConnection;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        routing = new ReplicaRoutingDataSource(primary, replica, guard);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToTheReplicaWhenTheGuardAllows() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(guard.route()).thenReturn(Route.READ_ONLY);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(routing.getRouted(Route.READ_ONLY)).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionStaysOnThePrimaryWhenTheGuardSaysSo() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(guard.route()).thenReturn(Route.RECENT_WRITE);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getRouted(Route.RECENT_WRITE)).isEqualTo(1);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void failedReplicaConnectionFallsBackToThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(guard.route()).thenReturn(Route.READ_ONLY);
+        SQLTransientConnectionException refused = new SQLTransientConnectionException("timeout");
+        when(replica.getConnection()).thenThrow(refused);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(guard).replicaFailed(refused);
+        assertThat(routing.getRouted(Route.REPLICA_DOWN)).isEqualTo(1);
+        assertThat(routing.getRouted(Route.READ_ONLY)).isZero();
+    }
+
+    @Test
+    void explicitCredentialsGoToThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        assertThat(routing.getConnection("reporting", "secret")).isSameAs(primaryConnection);
+        verifyNoInteractions(replica, guard);
+    }
+
+    @Test
+    void writeIsRecordedAfterCommitBeforeOtherListeners() throws SQLException {
+        StringBuilder order = new StringBuilder();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                order.append("listener ");
+            }
+        });
+        doAnswer(inv -> order.append("write ")).when(guard).recordWrite();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(guard, never()).recordWrite();
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+
+        assertThat(order).hasToString("write listener ");
+        assertThat(routing.getRouted(Route.READ_WRITE)).isEqualTo(1);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void autoCommitWriteIsRecordedWhenTheConnectionIsClosed() throws SQLException {
+        TransactionSynchronizationManager.clear();
+
+        Connection con = routing.getConnection();
+        verify(guard, never()).recordWrite();
+        con.close();
+
+        verify(primaryConnection).close();
+        verify(guard).recordWrite();
+    }
+}
@@ -0,0 +1,83 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.BatchItemResult;
+import com.mj.portfolio.dto.BatchResponse;
+import com.mj.portfolio.dto.DeviceRequest;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceBatchServiceTest {
+
+    @Mock DeviceRepository deviceRepo;
+    @Mock AuditLogWriter auditLog;
+    @Mock EntityManager entityManager;
+    @Mock ApplicationEventPublisher events;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private DeviceBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeviceBatchService(deviceRepo, auditLog, entityManager, validator, events, 2);
+        // Simulate Hibernate assigning ids on persist
+        lenient().when(deviceRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Device> devices = inv.getArgument(0);
+            devices.forEach(d -> d.setId(UUID.randomUUID()));
+            return List.copyOf(devices);
+        });
+    }
+
+    @Test
+    void createAll_writesInChunksAndClearsContext() {
+        BatchResponse result = service.createAll(List.of(
+                request("A"), request("B"), request("C")).iterator());
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getItems()).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2);
+        verify(deviceRepo, times(2)).saveAll(anyList());
+        verify(auditLog, times(3)).write(any());
+        verify(entityManager, times(2)).clear();
+        verify(events, times(3)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createAll_rejectsInvalidItemsWithoutAbortingBatch() {
+        DeviceRequest invalid = new DeviceRequest();
+        invalid.setType(DeviceType.SERVER);
+
+        BatchResponse result = service.createAll(List.of(request("A"), invalid, request("C")).iterator());
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        BatchItemResult rejected = result.getItems().get(1);
+        assertThat(rejected.getOutcome()).isEqualTo(BatchItemResult.Outcome.REJECTED);
+        assertThat(rejected.getError()).contains("name");
+        assertThat(result.getItems().get(2).getId()).isNotNull();
+    }
+
+    private DeviceRequest request(String name) {
+        DeviceRequest req = new DeviceRequest();
+        req.setName(name);
+        req.setType(DeviceType.SERVER);
+        return req;
+    }
+}
@@ -0,0 +1,128 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.BulkStatusResponse;
+import com.mj.portfolio.dto.DeviceFilter;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import com.mj.portfolio.exception.InvalidBulkFilterException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceBulkStatusServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock ApplicationEventPublisher events;
+
+    @InjectMocks DeviceBulkStatusService service;
+
+    @Test
+    void updateStatus_rejectsAFilterThatWouldMatchEveryDevice() {
+        DeviceFilter filter = new DeviceFilter();
+        filter.setLocation("  ");
+
+        assertThatThrownBy(() -> service.updateStatus(DeviceStatus.MAINTENANCE, filter, false))
+                .isInstanceOf(InvalidBulkFilterException.class);
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void updateStatus_returnsZeroWithoutQuerying_forAnEmptyIdList() {
+        DeviceFilter filter = new DeviceFilter();
+        filter.setIds(List.of());
+
+        BulkStatusResponse response = service.updateStatus(DeviceStatus.MAINTENANCE, filter, true);
+
+        assertThat(response.getUpdated()).isZero();
+        assertThat(response.getIds()).isEmpty();
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void updateStatus_bindsEveryCriterion_andSkipsDevicesAlreadyInTheNewStatus() throws Exception {
+        DeviceFilter filter = new DeviceFilter();
+        filter.setStatus(DeviceStatus.ACTIVE);
+        filter.setLocation("DC-1");
+        filter.setQ("10.20.");
+
+        service.updateStatus(DeviceStatus.MAINTENANCE, filter, false);
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbc).query(creator.capture(), any(RowCallbackHandler.class));
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(con.prepareStatement(sql.capture())).thenReturn(ps);
+        creator.getValue().createPreparedStatement(con);
+
+        assertThat(sql.getValue())
+                .contains("d.status <> CAST(? AS varchar)")
+                .contains("d.location = CAST(? AS varchar)")
+                .contains("d.ip_address ILIKE ? OR inet_or_null(d.ip_address) <<= CAST(? AS inet))")
+                .contains("INSERT INTO device_logs");
+        verify(ps).setObject(1, "MAINTENANCE");
+        verify(ps).setObject(2, "ACTIVE");
+        verify(ps).setObject(3, "DC-1");
+        verify(ps, times(3)).setObject(anyInt(), eq("%10.20.%"));
+        verify(ps).setObject(7, "10.20.0.0/16");
+    }
+
+    @Test
+    void updateStatus_publishesOneEventForEveryChangedRow() throws Exception {
+        UUID first = UUID.randomUUID(), second = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(first, second);
+        when(rs.getObject("log_id", UUID.class)).thenReturn(UUID.randomUUID(), UUID.randomUUID());
+        when(rs.getString("type")).thenReturn("ROUTER", "SERVER");
+        when(rs.getString("old_status")).thenReturn("ACTIVE", "INACTIVE");
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbc).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        DeviceFilter filter = new DeviceFilter();
+        filter.setLocation("DC-1");
+
+        BulkStatusResponse response = service.updateStatus(DeviceStatus.MAINTENANCE, filter, true);
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(events).publishEvent(event.capture());
+        DevicesStatusChangedEvent bulk = (DevicesStatusChangedEvent) event.getValue();
+        assertThat(bulk.getStatus()).isEqualTo(DeviceStatus.MAINTENANCE);
+        assertThat(bulk.getDeviceIds()).containsExactly(first, second);
+        assertThat(bulk.getLogs()).hasSize(2);
+        assertThat(bulk.previousCount(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isEqualTo(1);
+        assertThat(bulk.previousCount(DeviceType.SERVER, DeviceStatus.INACTIVE)).isEqualTo(1);
+        assertThat(response.getIds()).containsExactly(first, second);
+    }
+
+    @Test
+    void updateStatus_publishesNothing_whenNoRowChanged() {
+        DeviceFilter filter = new DeviceFilter();
+        filter.setLocation("DC-1");
+
+        service.updateStatus(DeviceStatus.MAINTENANCE, filter, false);
+
+        verifyNoInteractions(events);
+    }
+}
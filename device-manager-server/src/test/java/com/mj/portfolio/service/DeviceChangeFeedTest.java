@@ -0,0 +1,86 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.DeviceChangeResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeviceChangeFeedTest {
+
+    private final DeviceChangeFeed feed = new DeviceChangeFeed(3, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void changesAfter_replaysOnlyMissedEvents() {
+        publish("A");
+        String seen = feed.headId();
+        publish("B");
+        publish("C");
+
+        List<DeviceChangeResponse> missed = feed.changesAfter(seen).orElseThrow();
+
+        assertThat(missed).extracting(c -> c.getDevice().getName()).containsExactly("B", "C");
+        assertThat(missed.get(1).getEventId()).isEqualTo(feed.headId());
+        assertThat(feed.changesAfter(feed.headId())).hasValue(List.of());
+    }
+
+    @Test
+    void changesAfter_isEmpty_whenGapWasEvictedOrIdIsForeign() {
+        publish("A");
+        String seen = feed.headId();
+        publish("B");
+        publish("C");
+        publish("D");
+        publish("E"); // buffer of 3 holds C, D, E — B is gone
+
+        assertThat(feed.changesAfter(seen)).isEmpty();
+        assertThat(feed.changesAfter("otherepoch-1")).isEmpty();
+        assertThat(feed.changesAfter("garbage")).isEmpty();
+    }
+
+    @Test
+    void bulkStatusChange_takesOneIdAndForcesAResetForEarlierIds() {
+        publish("A");
+        String seen = feed.headId();
+        publish("B");
+        String before = feed.headId();
+
+        feed.onDevicesStatusChanged(new DevicesStatusChangedEvent(DeviceStatus.MAINTENANCE,
+                List.of(UUID.randomUUID(), UUID.randomUUID()),
+                new long[DeviceType.values().length][DeviceStatus.values().length], List.of()));
+
+        assertThat(feed.headId()).isNotEqualTo(before);
+        assertThat(feed.changesAfter(seen)).isEmpty();
+        assertThat(feed.changesAfter(before)).isEmpty();
+        String reset = feed.headId();
+        assertThat(feed.changesAfter(reset)).hasValue(List.of());
+
+        publish("C");
+        assertThat(feed.changesAfter(reset).orElseThrow())
+                .extracting(c -> c.getDevice().getName()).containsExactly("C");
+    }
+
+    private void publish(String name) {
+        Device d = new Device();
+        d.setId(UUID.randomUUID());
+        d.setName(name);
+        d.setType(DeviceType.SERVER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        feed.onDeviceChanged(DeviceChangedEvent.created(DeviceResponse.from(d), List.of()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.mj.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceExportServiceTest {
+
+    @Mock DeviceRepository deviceRepo;
+    @Mock EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private DeviceExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeviceExportService(deviceRepo, entityManager, objectMapper);
+    }
+
+    @Test
+    void export_writesCsvWithQuotingAndDetachesEachRow() throws Exception {
+        Device a = device("Router, core", "Rack \"A\"");
+        Device b = device("Switch-2", null);
+        when(deviceRepo.streamAll(eq("ACTIVE"), isNull(), isNull(), isNull())).thenReturn(Stream.of(a, b));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.export(DeviceStatus.ACTIVE, null, null, DeviceExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines[0]).isEqualTo(DeviceExportService.CSV_HEADER);
+        assertThat(lines[1]).startsWith(a.getId() + ",\"Router, core\",ROUTER,ACTIVE,10.0.0.1,\"Rack \"\"A\"\"\",");
+        assertThat(lines[2]).startsWith(b.getId() + ",Switch-2,ROUTER,ACTIVE,10.0.0.1,,");
+        verify(entityManager).detach(a);
+        verify(entityManager).detach(b);
+    }
+
+    @Test
+    void export_writesOneJsonObjectPerLine() throws Exception {
+        when(deviceRepo.streamAll(any(), any(), any(), any()))
+                .thenReturn(Stream.of(device("A", null), device("B", null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(null, null, null, DeviceExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("name").asText()).isEqualTo("B");
+    }
+
+    private static Device device(String name, String location) {
+        Device d = new Device();
+        d.setId(UUID.randomUUID());
+        d.setName(name);
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        d.setIpAddress("10.0.0.1");
+        d.setLocation(location);
+        return d;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.CursorPageResponse;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.entity.DeviceLog;
+import com.mj.portfolio.exception.InvalidCursorException;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceLogServiceTest {
+
+    @Mock DeviceLogRepository logRepo;
+
+    @InjectMocks DeviceLogService service;
+
+    @Test
+    void findLogs_returnsCursorThatResumesAfterLastRow() {
+        UUID deviceId = UUID.randomUUID();
+        DeviceLog newest = log(LocalDateTime.of(2024, 5, 2, 10, 0));
+        DeviceLog middle = log(LocalDateTime.of(2024, 5, 2, 9, 0));
+        DeviceLog oldest = log(LocalDateTime.of(2024, 5, 2, 8, 0));
+        when(logRepo.seekFirst(deviceId, "STATUS_CHANGED", null, null, 3)).thenReturn(List.of(newest, middle, oldest));
+
+        CursorPageResponse<DeviceLogResponse> first =
+                service.findLogs(deviceId, null, null, "status_changed", null, 2);
+
+        assertThat(first.getContent()).extracting(DeviceLogResponse::getId)
+                .containsExactly(newest.getId(), middle.getId());
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(logRepo.seekBefore(any(), any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of(oldest));
+        CursorPageResponse<DeviceLogResponse> second =
+                service.findLogs(deviceId, null, null, "status_changed", first.getNextCursor(), 2);
+
+        verify(logRepo).seekBefore(deviceId, "STATUS_CHANGED", null, null, middle.getCreatedAt(), middle.getId(), 3);
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findLogs_rejectsMalformedCursor() {
+        assertThatThrownBy(() -> service.findLogs(null, null, null, null, "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static DeviceLog log(LocalDateTime createdAt) {
+        DeviceLog log = new DeviceLog(null, "STATUS_CHANGED", "Status changed");
+        ReflectionTestUtils.setField(log, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(log, "createdAt", createdAt);
+        return log;
+    }
+}
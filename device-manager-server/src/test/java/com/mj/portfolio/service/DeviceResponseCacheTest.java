@@ -0,0 +1,83 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeviceResponseCacheTest {
+
+    @Test
+    void get_evictsLeastRecentlyUsedBeyondMaxSize() {
+        DeviceResponseCache cache = new DeviceResponseCache(2, Duration.ofMinutes(1));
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(a, () -> load(loads));
+        cache.get(b, () -> load(loads));
+        cache.get(a, () -> load(loads));   // a is now most recently used
+        cache.get(c, () -> load(loads));   // evicts b
+        cache.get(a, () -> load(loads));
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void get_expiresEntriesAfterTtl() {
+        DeviceResponseCache cache = new DeviceResponseCache(10, Duration.ZERO);
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(id, () -> load(loads));
+        cache.get(id, () -> load(loads));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void get_doesNotCacheLoadRacingAnInvalidation() {
+        DeviceResponseCache cache = new DeviceResponseCache(10, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // The change commits while the (stale) row is being loaded
+        cache.get(id, () -> {
+            cache.invalidate(id);
+            return load(loads);
+        });
+        cache.get(id, () -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateAll_dropsOnlyTheListedEntries() {
+        DeviceResponseCache cache = new DeviceResponseCache(10, Duration.ofMinutes(1));
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(a, () -> load(loads));
+        cache.get(b, () -> load(loads));
+        cache.get(c, () -> load(loads));
+
+        cache.invalidateAll(List.of(a, b));
+        cache.get(a, () -> load(loads));
+        cache.get(c, () -> load(loads));
+
+        assertThat(loads).hasValue(4);
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+    }
+
+    private static DeviceResponse load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return DeviceResponse.from(new Device());
+    }
+}
@@ -0,0 +1,53 @@
+package com.mj.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeviceSearchQueryTest {
+
+    @Test
+    void parse_returnsNull_forBlankInput() {
+        assertThat(DeviceSearchQuery.parse("  ")).isNull();
+        assertThat(DeviceSearchQuery.parse(null)).isNull();
+    }
+
+    @Test
+    void parse_recognisesIpv4CidrsAndTrailingDotPrefixes() {
+        assertThat(DeviceSearchQuery.parse("10.0.0.0/8").getCidr()).isEqualTo("10.0.0.0/8");
+        assertThat(DeviceSearchQuery.parse("10.20.").getCidr()).isEqualTo("10.20.0.0/16");
+        assertThat(DeviceSearchQuery.parse("192.168.1.").getCidr()).isEqualTo("192.168.1.0/24");
+    }
+
+    @Test
+    void parse_keepsBareAddressesAsSubstringSearch() {
+        // "192.168.1.7" must still find 192.168.1.70-79 and names containing it
+        assertThat(DeviceSearchQuery.parse("192.168.1.7").isNetwork()).isFalse();
+        assertThat(DeviceSearchQuery.parse("192.168.1.7").likePattern()).isEqualTo("%192.168.1.7%");
+        assertThat(DeviceSearchQuery.parse("192.168.1").isNetwork()).isFalse();
+        assertThat(DeviceSearchQuery.parse("fd00::1").isNetwork()).isFalse();
+    }
+
+    @Test
+    void parse_networkTermsStillCarryTheSubstringPattern() {
+        assertThat(DeviceSearchQuery.parse("10.20.").likePattern()).isEqualTo("%10.20.%");
+    }
+
+    @Test
+    void parse_recognisesIpv6Cidrs() {
+        assertThat(DeviceSearchQuery.parse("fd00::/8").getCidr()).isEqualTo("fd00::/8");
+        assertThat(DeviceSearchQuery.parse("fd00:::::1/64").isNetwork()).isFalse();
+    }
+
+    @Test
+    void parse_fallsBackToText_forInvalidOrNonNetworkInput() {
+        assertThat(DeviceSearchQuery.parse("300.1.1.1").isNetwork()).isFalse();
+        assertThat(DeviceSearchQuery.parse("10.0.0.0/40").isNetwork()).isFalse();
+        assertThat(DeviceSearchQuery.parse("Rack A").isNetwork()).isFalse();
+    }
+
+    @Test
+    void likePattern_escapesWildcards() {
+        assertThat(DeviceSearchQuery.parse("50%_off\\").likePattern()).isEqualTo("%50\\%\\_off\\\\%");
+    }
+}
@@ -1,24 +1,35 @@
 package com.mj.portfolio.service;
 
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.CursorPageResponse;
 import com.mj.portfolio.dto.DeviceRequest;
 import com.mj.portfolio.dto.DeviceResponse;
 import com.mj.portfolio.entity.Device;
 import com.mj.portfolio.entity.enums.DeviceStatus;
 import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DeviceChangedEvent;
 import com.mj.portfolio.exception.DeviceNotFoundException;
-import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.exception.DeviceVersionMismatchException;
+import com.mj.portfolio.exception.InvalidCursorException;
+import com.mj.portfolio.repository.DeviceMutations.Mutation;
 import com.mj.portfolio.repository.DeviceRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,7 +41,9 @@ import static org.mockito.Mockito.*;
 class DeviceServiceTest {
 
     @Mock DeviceRepository deviceRepo;
-    @Mock DeviceLogRepository logRepo;
+    @Mock AuditLogWriter auditLog;
+    @Mock ApplicationEventPublisher events;
+    @Spy DeviceResponseCache cache = new DeviceResponseCache(100, Duration.ofMinutes(1));
 
     @InjectMocks DeviceService service;
 
@@ -59,6 +72,37 @@ class DeviceServiceTest {
         assertThat(result.getContent().get(0).getName()).isEqualTo("Router-1");
     }
 
+    @Test
+    void findAll_withTextQuery_usesRankedTrigramSearch() {
+        when(deviceRepo.search(eq("rack_1"), eq("%rack\\_1%"), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleDevice)));
+
+        Page<DeviceResponse> result = service.findAll(null, null, " rack_1 ", PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    void findAll_withNetworkPrefix_combinesSubstringAndContainment() {
+        when(deviceRepo.searchWithNetwork(eq("%192.168.%"), eq("192.168.0.0/16"), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleDevice)));
+
+        Page<DeviceResponse> result = service.findAll(null, null, "192.168.", PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(deviceRepo, never()).search(any(), any(), any());
+    }
+
+    @Test
+    void findAll_withBareAddress_usesSubstringSearch() {
+        when(deviceRepo.search(eq("192.168.1.7"), eq("%192.168.1.7%"), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleDevice)));
+
+        service.findAll(null, null, "192.168.1.7", PageRequest.of(0, 20));
+
+        verify(deviceRepo, never()).searchWithNetwork(any(), any(), any());
+    }
+
     @Test
     void findById_returnsDevice_whenExists() {
         when(deviceRepo.findById(sampleId)).thenReturn(Optional.of(sampleDevice));
@@ -69,6 +113,21 @@ class DeviceServiceTest {
         assertThat(response.getType()).isEqualTo(DeviceType.ROUTER);
     }
 
+    @Test
+    void findById_servesRepeatReadsFromCacheUntilInvalidated() {
+        when(deviceRepo.findById(sampleId)).thenReturn(Optional.of(sampleDevice));
+
+        service.findById(sampleId);
+        service.findById(sampleId);
+        verify(deviceRepo, times(1)).findById(sampleId);
+
+        cache.invalidate(sampleId);
+        service.findById(sampleId);
+        verify(deviceRepo, times(2)).findById(sampleId);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(2);
+    }
+
     @Test
     void findById_throws_whenNotFound() {
         when(deviceRepo.findById(sampleId)).thenReturn(Optional.empty());
@@ -94,22 +153,106 @@ class DeviceServiceTest {
         DeviceResponse result = service.create(req);
 
         assertThat(result.getName()).isEqualTo("Server-A");
-        verify(logRepo).save(argThat(log -> "CREATED".equals(log.getAction())));
+        verify(auditLog).write(argThat(e -> "CREATED".equals(e.getAction())));
     }
 
     @Test
     void update_updatesFieldsAndLogs() {
-        when(deviceRepo.findById(sampleId)).thenReturn(Optional.of(sampleDevice));
-        when(deviceRepo.save(any(Device.class))).thenReturn(sampleDevice);
+        when(deviceRepo.update(eq(sampleId), argThat(d -> "Router-Updated".equals(d.getName())), isNull()))
+                .thenReturn(Optional.of(mutation("Router-Updated", DeviceStatus.MAINTENANCE, 2L,
+                        DeviceType.ROUTER, DeviceStatus.ACTIVE)));
 
         DeviceRequest req = new DeviceRequest();
         req.setName("Router-Updated");
         req.setType(DeviceType.ROUTER);
         req.setStatus(DeviceStatus.MAINTENANCE);
 
-        service.update(sampleId, req);
+        DeviceResponse result = service.update(sampleId, req);
+
+        assertThat(result.getVersion()).isEqualTo(2L);
+        verify(auditLog, atLeastOnce()).write(argThat(e -> "UPDATED".equals(e.getAction())));
+        verify(events).publishEvent(argThat((Object e) -> e instanceof DeviceChangedEvent ev
+                && ev.getChangeType() == DeviceChangedEvent.ChangeType.UPDATED
+                && ev.getPreviousStatus() == DeviceStatus.ACTIVE
+                && ev.getLogs().size() == 2));
+        verify(deviceRepo, never()).findById(any());
+        verify(deviceRepo, never()).save(any());
+    }
+
+    @Test
+    void updateStatus_logsTheStatusTheStatementReplaced() {
+        when(deviceRepo.updateStatus(sampleId, DeviceStatus.INACTIVE, 4L))
+                .thenReturn(Optional.of(mutation("Router-1", DeviceStatus.INACTIVE, 5L,
+                        DeviceType.ROUTER, DeviceStatus.MAINTENANCE)));
+
+        DeviceResponse result = service.updateStatus(sampleId, DeviceStatus.INACTIVE, 4L);
+
+        assertThat(result.getStatus()).isEqualTo(DeviceStatus.INACTIVE);
+        verify(auditLog).write(argThat(e -> e.getDescription().equals("Status changed from MAINTENANCE to INACTIVE")));
+        verify(events).publishEvent(argThat((Object e) -> e instanceof DeviceChangedEvent ev
+                && ev.getPreviousStatus() == DeviceStatus.MAINTENANCE));
+    }
+
+    @Test
+    void updateStatus_withStaleVersion_throwsMismatch_orNotFound() {
+        UUID gone = UUID.randomUUID();
+        when(deviceRepo.updateStatus(any(), any(), eq(4L))).thenReturn(Optional.empty());
+        when(deviceRepo.existsById(sampleId)).thenReturn(true);
+        when(deviceRepo.existsById(gone)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.updateStatus(sampleId, DeviceStatus.INACTIVE, 4L))
+                .isInstanceOf(DeviceVersionMismatchException.class);
+        assertThatThrownBy(() -> service.updateStatus(gone, DeviceStatus.INACTIVE, 4L))
+                .isInstanceOf(DeviceNotFoundException.class);
+        verifyNoInteractions(auditLog, events);
+    }
+
+    @Test
+    void delete_throwsMismatch_whenVersionDiffers() {
+        ReflectionTestUtils.setField(sampleDevice, "version", 5L);
+        when(deviceRepo.findById(sampleId)).thenReturn(Optional.of(sampleDevice));
+
+        assertThatThrownBy(() -> service.delete(sampleId, 4L))
+                .isInstanceOf(DeviceVersionMismatchException.class);
+        verify(deviceRepo, never()).delete(any());
+    }
+
+    @Test
+    void applyReportedStatuses_logsOnlyRealTransitions() {
+        sampleDevice.setId(sampleId);
+        Device unchanged = new Device();
+        unchanged.setId(UUID.randomUUID());
+        unchanged.setType(DeviceType.SERVER);
+        unchanged.setStatus(DeviceStatus.INACTIVE);
+        when(deviceRepo.findAllById(any())).thenReturn(List.of(sampleDevice, unchanged));
+
+        int changed = service.applyReportedStatuses(Map.of(
+                sampleId, DeviceStatus.MAINTENANCE,
+                unchanged.getId(), DeviceStatus.INACTIVE,
+                UUID.randomUUID(), DeviceStatus.ACTIVE));
+
+        assertThat(changed).isEqualTo(1);
+        assertThat(sampleDevice.getStatus()).isEqualTo(DeviceStatus.MAINTENANCE);
+        verify(deviceRepo).flush();
+        verify(auditLog).write(argThat(e -> "STATUS_CHANGED".equals(e.getAction())
+                && e.getDescription().equals("Status changed from ACTIVE to MAINTENANCE")));
+        verify(events).publishEvent(argThat((Object e) -> e instanceof DeviceChangedEvent ev
+                && ev.getPreviousStatus() == DeviceStatus.ACTIVE));
+        verifyNoMoreInteractions(auditLog, events);
+    }
+
+    @Test
+    void applyReportedStatuses_leavesStatusesOutsideReplaceableAlone() {
+        sampleDevice.setId(sampleId);
+        sampleDevice.setStatus(DeviceStatus.MAINTENANCE);
+        when(deviceRepo.findAllById(any())).thenReturn(List.of(sampleDevice));
+
+        int changed = service.applyReportedStatuses(Map.of(sampleId, DeviceStatus.INACTIVE),
+                EnumSet.of(DeviceStatus.ACTIVE, DeviceStatus.INACTIVE));
 
-        verify(logRepo, atLeastOnce()).save(argThat(log -> "UPDATED".equals(log.getAction())));
+        assertThat(changed).isZero();
+        assertThat(sampleDevice.getStatus()).isEqualTo(DeviceStatus.MAINTENANCE);
+        verifyNoInteractions(auditLog, events);
     }
 
     @Test
@@ -118,7 +261,42 @@ class DeviceServiceTest {
 
         service.delete(sampleId);
 
-        verify(logRepo).save(argThat(log -> "DELETED".equals(log.getAction())));
+        verify(auditLog).write(argThat(e -> "DELETED".equals(e.getAction())));
         verify(deviceRepo).delete(sampleDevice);
     }
+
+    @Test
+    void findAfter_returnsNextCursor_whenMoreRowsExist() {
+        Device second = new Device();
+        second.setId(UUID.randomUUID());
+        second.setName("Router-2");
+        sampleDevice.setId(sampleId);
+        when(deviceRepo.seekFirst(null, "ROUTER", null, null, 2)).thenReturn(List.of(sampleDevice, second));
+
+        CursorPageResponse<DeviceResponse> result = service.findAfter(null, DeviceType.ROUTER, null, null, 1);
+
+        assertThat(result.getContent()).extracting(DeviceResponse::getName).containsExactly("Router-1");
+        assertThat(result.getNextCursor()).isNotNull();
+
+        when(deviceRepo.seekAfter(null, "ROUTER", null, null, "Router-1", sampleId, 2)).thenReturn(List.of(second));
+
+        CursorPageResponse<DeviceResponse> next =
+                service.findAfter(null, DeviceType.ROUTER, null, result.getNextCursor(), 1);
+
+        assertThat(next.getContent()).extracting(DeviceResponse::getName).containsExactly("Router-2");
+        assertThat(next.getNextCursor()).isNull();
+        verify(deviceRepo, never()).count();
+    }
+
+    private Mutation mutation(String name, DeviceStatus status, long version,
+                              DeviceType previousType, DeviceStatus previousStatus) {
+        return new Mutation(DeviceResponse.of(sampleId, name, DeviceType.ROUTER, status, "192.168.1.1",
+                "Server Room", null, null, version), previousType, previousStatus);
+    }
+
+    @Test
+    void findAfter_throws_whenCursorIsGarbage() {
+        assertThatThrownBy(() -> service.findAfter(null, null, null, "not-a-cursor", 20))
+                .isInstanceOf(InvalidCursorException.class);
+    }
 }
@@ -0,0 +1,127 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.DeviceDeltaResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceSyncServiceTest {
+
+    @Mock DeviceRepository deviceRepo;
+    @Mock DeviceLogRepository logRepo;
+    @Mock AuditLogWriter auditLog;
+
+    private DeviceSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeviceSyncService(deviceRepo, logRepo, auditLog, Duration.ofSeconds(5), 0);
+    }
+
+    @Test
+    void changesSince_fullWindow_resumesFromLastRow() {
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 10, 0);
+        Device first = device(since.plusSeconds(1));
+        Device second = device(since.plusSeconds(2));
+        Device third = device(since.plusSeconds(3));
+        UUID gone = UUID.randomUUID();
+        when(deviceRepo.findUpdatedSince(since, 3)).thenReturn(List.of(first, second, third));
+        when(logRepo.findDeletedDeviceIdsSince(since)).thenReturn(List.of(gone));
+
+        DeviceDeltaResponse delta = service.changesSince(since, null, 2);
+
+        assertThat(delta.getDevices()).extracting(DeviceResponse::getId)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(delta.getDeleted()).containsExactly(gone);
+        assertThat(delta.isHasMore()).isTrue();
+        assertThat(delta.getWatermark()).isEqualTo(second.getUpdatedAt());
+        assertThat(delta.getWatermarkId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    void changesSince_caughtUp_holdsWatermarkBackByOverlap() {
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 10, 0);
+        UUID afterId = UUID.randomUUID();
+        when(deviceRepo.findUpdatedAfter(since, afterId, 1001)).thenReturn(List.of(device(since.plusSeconds(1))));
+        when(logRepo.findDeletedDeviceIdsSince(since)).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        DeviceDeltaResponse delta = service.changesSince(since, afterId, 1000);
+
+        assertThat(delta.isHasMore()).isFalse();
+        assertThat(delta.getWatermarkId()).isNull();
+        assertThat(delta.getWatermark()).isBetween(before.minusSeconds(5), LocalDateTime.now().minusSeconds(5));
+    }
+
+    @Test
+    void changesSince_neverMovesWatermarkBackwards() {
+        LocalDateTime since = LocalDateTime.now().plusMinutes(1);
+        when(deviceRepo.findUpdatedSince(since, 1001)).thenReturn(List.of());
+        when(logRepo.findDeletedDeviceIdsSince(since)).thenReturn(List.of());
+
+        DeviceDeltaResponse delta = service.changesSince(since, null, 1000);
+
+        assertThat(delta.getWatermark()).isEqualTo(since);
+    }
+
+    @Test
+    void changesSince_trustsTombstones_whileNothingWasRetiredOrLost() {
+        LocalDateTime since = LocalDateTime.of(2020, 1, 1, 0, 0);
+        when(deviceRepo.findUpdatedSince(since, 1001)).thenReturn(List.of());
+        when(logRepo.findDeletedDeviceIdsSince(since)).thenReturn(List.of());
+
+        assertThat(service.changesSince(since, null, 1000).isResync()).isFalse();
+    }
+
+    @Test
+    void changesSince_asksForResync_whenWatermarkPredatesRetainedLogs() {
+        service = new DeviceSyncService(deviceRepo, logRepo, auditLog, Duration.ofSeconds(5), 3);
+        LocalDateTime horizon = YearMonth.now().minusMonths(3).atDay(1).atStartOfDay();
+        when(deviceRepo.findUpdatedSince(any(), anyInt())).thenReturn(List.of());
+        when(logRepo.findDeletedDeviceIdsSince(any())).thenReturn(List.of());
+
+        assertThat(service.changesSince(horizon.minusSeconds(1), null, 1000).isResync()).isTrue();
+        assertThat(service.changesSince(horizon.plusSeconds(1), null, 1000).isResync()).isFalse();
+    }
+
+    @Test
+    void changesSince_asksForResync_whenAuditWriterLostEntriesAfterWatermark() {
+        LocalDateTime lost = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(auditLog.lostUntil()).thenReturn(lost);
+        when(deviceRepo.findUpdatedSince(any(), anyInt())).thenReturn(List.of());
+        when(logRepo.findDeletedDeviceIdsSince(any())).thenReturn(List.of());
+
+        assertThat(service.changesSince(lost, null, 1000).isResync()).isTrue();
+        assertThat(service.changesSince(lost.plusNanos(1000), null, 1000).isResync()).isFalse();
+    }
+
+    private static Device device(LocalDateTime updatedAt) {
+        Device d = new Device();
+        ReflectionTestUtils.setField(d, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(d, "updatedAt", updatedAt);
+        d.setName("dev-" + updatedAt.getSecond());
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        return d;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.dto.HeartbeatRequest;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HeartbeatServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock PlatformTransactionManager txManager;
+    @Mock DeviceService deviceService;
+
+    private HeartbeatService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new HeartbeatService(jdbc, txManager, deviceService, 2);
+    }
+
+    @Test
+    void flush_writesOneRowPerDevice_withTheLatestTimeAndLastReportedStatus() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime t0 = LocalDateTime.now().minusMinutes(1);
+        service.record(List.of(
+                beat(id, t0.plusSeconds(10), null),
+                beat(id, t0, DeviceStatus.MAINTENANCE),
+                beat(id, t0.plusSeconds(5), null)));
+        when(deviceService.applyReportedStatuses(any())).thenReturn(1);
+
+        service.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbc).batchUpdate(eq(HeartbeatService.UPDATE_LAST_SEEN), rows.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(rows.getValue().get(0)).containsExactly(
+                Timestamp.valueOf(t0.plusSeconds(10)), id, Timestamp.valueOf(t0.plusSeconds(10)));
+        verify(deviceService).applyReportedStatuses(Map.of(id, DeviceStatus.MAINTENANCE));
+        assertThat(service.getPending()).isZero();
+        assertThat(service.getFlushedRows()).isEqualTo(1);
+        assertThat(service.getTransitions()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_skipsStatusUpdate_whenNoHeartbeatCarriesAStatus() {
+        service.record(List.of(beat(UUID.randomUUID(), null, null)));
+
+        service.flush();
+
+        verify(jdbc).batchUpdate(eq(HeartbeatService.UPDATE_LAST_SEEN), anyList());
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void record_rejectsNewDevices_onceMaxPendingIsReached_butKeepsMergingKnownOnes() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        int accepted = service.record(List.of(
+                beat(a, null, null), beat(b, null, null), beat(UUID.randomUUID(), null, null),
+                beat(a, null, DeviceStatus.INACTIVE), beat(null, null, null)));
+
+        assertThat(accepted).isEqualTo(3);
+        assertThat(service.getRejected()).isEqualTo(2);
+        assertThat(service.getPending()).isEqualTo(2);
+    }
+
+    @Test
+    void record_clampsFutureTimestampsToNow() {
+        UUID id = UUID.randomUUID();
+        service.record(List.of(beat(id, LocalDateTime.now().plusDays(1), null)));
+
+        service.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbc).batchUpdate(eq(HeartbeatService.UPDATE_LAST_SEEN), rows.capture());
+        Timestamp written = (Timestamp) rows.getValue().get(0)[0];
+        assertThat(written.toLocalDateTime()).isBeforeOrEqualTo(LocalDateTime.now());
+    }
+
+    @Test
+    void flush_requeuesHeartbeats_whenTheWriteFails() {
+        UUID id = UUID.randomUUID();
+        service.record(List.of(beat(id, null, DeviceStatus.ACTIVE)));
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        service.flush();
+
+        assertThat(service.getPending()).isEqualTo(1);
+        assertThat(service.getFlushes()).isZero();
+    }
+
+    private static HeartbeatRequest beat(UUID id, LocalDateTime ts, DeviceStatus status) {
+        HeartbeatRequest h = new HeartbeatRequest();
+        h.setDeviceId(id);
+        h.setTs(ts);
+        h.setStatus(status);
+        return h;
+    }
+}
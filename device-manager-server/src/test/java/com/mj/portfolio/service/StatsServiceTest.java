@@ -0,0 +1,218 @@
+package com.mj.portfolio.service;
+
+import com.mj.portfolio.audit.AuditLogWriter;
+import com.mj.portfolio.dto.AuditStatsResponse;
+import com.mj.portfolio.dto.DeviceLogResponse;
+import com.mj.portfolio.dto.DeviceResponse;
+import com.mj.portfolio.dto.StatsResponse;
+import com.mj.portfolio.entity.Device;
+import com.mj.portfolio.entity.enums.DeviceStatus;
+import com.mj.portfolio.entity.enums.DeviceType;
+import com.mj.portfolio.event.DeviceChangedEvent;
+import com.mj.portfolio.event.DevicesStatusChangedEvent;
+import com.mj.portfolio.repository.DeviceLogRepository;
+import com.mj.portfolio.repository.DeviceRepository;
+import com.mj.portfolio.repository.TypeStatusCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceTest {
+
+    @Mock DeviceRepository deviceRepo;
+    @Mock DeviceLogRepository logRepo;
+    @Mock AuditLogWriter auditLog;
+
+    @Test
+    void getStats_queryMode_aggregatesSingleGroupByResult() {
+        when(deviceRepo.countByTypeAndStatus()).thenReturn(List.of(
+                cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 3),
+                cell(DeviceType.ROUTER, DeviceStatus.INACTIVE, 1),
+                cell(DeviceType.SERVER, DeviceStatus.ACTIVE, 2)));
+        StatsService service = new StatsService(deviceRepo, logRepo, Optional.empty(), new DeviceVersion(true), auditLog);
+
+        StatsResponse stats = service.getStats();
+
+        assertThat(stats.getSource()).isEqualTo(StatsResponse.Source.QUERY);
+        assertThat(stats.getTotal()).isEqualTo(6);
+        assertThat(stats.getByType()).containsEntry("ROUTER", 4L).containsEntry("PRINTER", 0L);
+        assertThat(stats.getByStatus()).containsEntry("ACTIVE", 5L).containsEntry("INACTIVE", 1L);
+        verify(deviceRepo, never()).count();
+    }
+
+    @Test
+    void getStats_countersMode_servesFromMemoryAndReportsDrift() {
+        when(deviceRepo.countByTypeAndStatus())
+                .thenReturn(List.of(cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 2)))
+                .thenReturn(List.of(cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 2),
+                                    cell(DeviceType.ROUTER, DeviceStatus.MAINTENANCE, 1)));
+        DeviceStatsCounters counters = new DeviceStatsCounters(deviceRepo, logRepo);
+        counters.seed();
+        StatsService service = new StatsService(deviceRepo, logRepo, Optional.of(counters), new DeviceVersion(true), auditLog);
+
+        Device d = new Device();
+        d.setName("Router-9");
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.MAINTENANCE);
+        counters.onDeviceChanged(DeviceChangedEvent.updated(
+                DeviceResponse.from(d), DeviceType.ROUTER, DeviceStatus.ACTIVE, List.<DeviceLogResponse>of()));
+        clearInvocations(deviceRepo);
+
+        StatsResponse stats = service.getStats();
+
+        assertThat(stats.getSource()).isEqualTo(StatsResponse.Source.COUNTERS);
+        assertThat(stats.getByStatus()).containsEntry("ACTIVE", 1L).containsEntry("MAINTENANCE", 1L);
+        verifyNoInteractions(deviceRepo);
+
+        // Database says 3 devices; counters say 2 — one was created behind our back
+        counters.reconcile();
+
+        assertThat(counters.getLastDrift()).isEqualTo(1);
+        assertThat(service.getStats().getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void reconcile_skipsCorrectionWhenAnEventLandsDuringRecount() {
+        DeviceStatsCounters counters = new DeviceStatsCounters(deviceRepo, logRepo);
+        Device d = new Device();
+        d.setName("Router-9");
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        DeviceChangedEvent created = DeviceChangedEvent.created(DeviceResponse.from(d), List.of());
+        when(deviceRepo.countByTypeAndStatus())
+                .thenReturn(List.of(cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 1)))
+                .thenAnswer(inv -> {
+                    // Committed after the recount read the table
+                    counters.onDeviceChanged(created);
+                    return List.of(cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 1));
+                });
+        counters.seed();
+
+        counters.reconcile();
+
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isEqualTo(2);
+        assertThat(counters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void reconcile_skipsCorrectionWhileACommittedChangeIsNotYetApplied() {
+        DeviceStatsCounters counters = new DeviceStatsCounters(deviceRepo, logRepo);
+        Device d = new Device();
+        d.setName("Router-9");
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        when(deviceRepo.countByTypeAndStatus())
+                .thenReturn(List.of())
+                .thenReturn(List.of(cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 1)));
+        counters.seed();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.onDeviceChangeCommitting(DeviceChangedEvent.created(DeviceResponse.from(d), List.of()));
+            // Committed and seen by the recount, but its listener hasn't run yet
+            counters.reconcile();
+            assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isZero();
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isEqualTo(1);
+        counters.reconcile();
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isEqualTo(1);
+        assertThat(counters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void onDevicesStatusChanged_movesEveryCellInOneEvent() {
+        when(deviceRepo.countByTypeAndStatus()).thenReturn(List.of(
+                cell(DeviceType.ROUTER, DeviceStatus.ACTIVE, 3),
+                cell(DeviceType.ROUTER, DeviceStatus.INACTIVE, 1),
+                cell(DeviceType.SERVER, DeviceStatus.ACTIVE, 2)));
+        DeviceStatsCounters counters = new DeviceStatsCounters(deviceRepo, logRepo);
+        counters.seed();
+        long seq = counters.getChangeSeq();
+        long[][] moved = new long[DeviceType.values().length][DeviceStatus.values().length];
+        moved[DeviceType.ROUTER.ordinal()][DeviceStatus.ACTIVE.ordinal()] = 2;
+        moved[DeviceType.ROUTER.ordinal()][DeviceStatus.INACTIVE.ordinal()] = 1;
+        moved[DeviceType.SERVER.ordinal()][DeviceStatus.ACTIVE.ordinal()] = 2;
+        List<DeviceLogResponse> logs = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            logs.add(DeviceLogResponse.of(UUID.randomUUID(), UUID.randomUUID(), "STATUS_CHANGED", "log " + i, null));
+        }
+
+        counters.onDevicesStatusChanged(new DevicesStatusChangedEvent(DeviceStatus.MAINTENANCE,
+                List.of(UUID.randomUUID()), moved, logs));
+
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.ACTIVE)).isEqualTo(1);
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.INACTIVE)).isZero();
+        assertThat(counters.count(DeviceType.ROUTER, DeviceStatus.MAINTENANCE)).isEqualTo(3);
+        assertThat(counters.count(DeviceType.SERVER, DeviceStatus.ACTIVE)).isZero();
+        assertThat(counters.count(DeviceType.SERVER, DeviceStatus.MAINTENANCE)).isEqualTo(2);
+        assertThat(counters.getChangeSeq()).isEqualTo(seq + 1);
+        assertThat(counters.recentActivity()).hasSize(10)
+                .first().extracting(DeviceLogResponse::getDescription).isEqualTo("log 14");
+    }
+
+    @Test
+    void versionTag_changesWithCommittedChangesAuditRowsAndCounters() {
+        when(deviceRepo.countByTypeAndStatus()).thenReturn(List.of());
+        when(auditLog.stats()).thenReturn(auditWritten(0));
+        DeviceVersion version = new DeviceVersion(true);
+        DeviceStatsCounters counters = new DeviceStatsCounters(deviceRepo, logRepo);
+        StatsService service = new StatsService(deviceRepo, logRepo, Optional.of(counters), version, auditLog);
+
+        String unseeded = service.versionTag();
+        counters.seed();
+        String seeded = service.versionTag();
+        assertThat(seeded).isNotEqualTo(unseeded).isEqualTo(service.versionTag());
+
+        Device d = new Device();
+        d.setName("Router-9");
+        d.setType(DeviceType.ROUTER);
+        d.setStatus(DeviceStatus.ACTIVE);
+        DeviceChangedEvent created = DeviceChangedEvent.created(DeviceResponse.from(d), List.of());
+        counters.onDeviceChanged(created);
+        String countersApplied = service.versionTag();
+        version.onDeviceChanged(created);
+        String committed = service.versionTag();
+        when(auditLog.stats()).thenReturn(auditWritten(1));
+        String logged = service.versionTag();
+
+        assertThat(List.of(seeded, countersApplied, committed, logged)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void versionTag_isNull_whenDeviceVersionIssuesNoTags() {
+        StatsService service = new StatsService(deviceRepo, logRepo, Optional.empty(), new DeviceVersion(false), auditLog);
+
+        assertThat(service.versionTag()).isNull();
+    }
+
+    private static AuditStatsResponse auditWritten(long written) {
+        return new AuditStatsResponse("ASYNC", 0, 10, written, 0, 0, 0, 0, 0, 0);
+    }
+
+    private static TypeStatusCount cell(DeviceType type, DeviceStatus status, long count) {
+        return new TypeStatusCount() {
+            public DeviceType getType()     { return type; }
+            public DeviceStatus getStatus() { return status; }
+            public long getCount()          { return count; }
+        };
+    }
+}